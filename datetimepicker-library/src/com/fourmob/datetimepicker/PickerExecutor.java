@@ -0,0 +1,60 @@
+package com.fourmob.datetimepicker;
+
+import android.os.Process;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Background threads shared by the pickers for work which mustn't run on the UI thread.
+ *
+ * {@link #getInstance()} is a single thread for the pickers' own work, such as prewarming and
+ * decorating days. Queries of an {@link com.fourmob.datetimepicker.date.AvailabilityProvider},
+ * which may be slow and are retried when they fail, run on their own thread from
+ * {@link #getAvailabilityInstance()} instead, so a slow provider doesn't hold up the rest. Each
+ * kind of work still runs one task at a time, so providers are never called concurrently.
+ *
+ * The threads run at background priority and are daemons, so they never hold the process open.
+ */
+public final class PickerExecutor {
+    private static ExecutorService sExecutor;
+    private static ExecutorService sAvailabilityExecutor;
+
+    private PickerExecutor() {
+    }
+
+    public static synchronized ExecutorService getInstance() {
+        if (sExecutor == null) {
+            sExecutor = Executors.newSingleThreadExecutor(newThreadFactory("DateTimePicker"));
+        }
+        return sExecutor;
+    }
+
+    /**
+     * @return the thread which availability providers are queried on.
+     */
+    public static synchronized ExecutorService getAvailabilityInstance() {
+        if (sAvailabilityExecutor == null) {
+            sAvailabilityExecutor = Executors.newSingleThreadExecutor(newThreadFactory("DateTimePicker-Availability"));
+        }
+        return sAvailabilityExecutor;
+    }
+
+    private static ThreadFactory newThreadFactory(final String name) {
+        return new ThreadFactory() {
+            @Override
+            public Thread newThread(final Runnable runnable) {
+                Thread thread = new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                        runnable.run();
+                    }
+                }, name);
+                thread.setDaemon(true);
+                return thread;
+            }
+        };
+    }
+}
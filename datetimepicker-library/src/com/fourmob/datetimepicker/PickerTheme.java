@@ -0,0 +1,112 @@
+package com.fourmob.datetimepicker;
+
+import android.content.Context;
+import android.content.res.ColorStateList;
+import android.content.res.Configuration;
+import android.content.res.Resources;
+import android.graphics.Typeface;
+
+import java.util.WeakHashMap;
+
+/**
+ * Immutable snapshot of the colors, typefaces and dimensions drawn by the date and time pickers.
+ * A snapshot is resolved once per {@link Resources.Theme} and shared by every picker view created
+ * for that theme, so creating a view doesn't touch the resources. Snapshots are dropped with their
+ * theme and resolved again when the configuration of the resources changes.
+ */
+public final class PickerTheme {
+    private static final WeakHashMap<Resources.Theme, PickerTheme> sThemes = new WeakHashMap<>();
+
+    // The configuration the snapshot was resolved for. Never a reference to the theme itself, so
+    // the cache doesn't keep its keys alive.
+    private final Configuration mConfiguration;
+
+    public final int primaryColor;
+    public final ColorStateList buttonTextColors;
+
+    public final Typeface sansSerifTypeface;
+    public final Typeface sansSerifBoldTypeface;
+    public final Typeface dayOfWeekTypeface;
+    public final Typeface radialNumbersTypeface;
+
+    public final int circleBackgroundColor;
+    public final int transparentBlackColor;
+    public final int dayTextColor;
+    public final int selectedDayTextColor;
+    public final int disabledTextColor;
+    public final int amPmTextColor;
+    public final int selectedAmPmTextColor;
+    public final int numbersTextColor;
+
+    public final int dayNumberTextSize;
+    public final int monthLabelTextSize;
+    public final int monthDayLabelTextSize;
+    public final int monthHeaderSize;
+    public final int monthViewBottomPadding;
+    public final int daySelectedCircleRadius;
+    public final int decorationDotRadius;
+    public final int decorationOffset;
+    public final int decorationLabelTextSize;
+    public final int dayPickerHeight;
+
+    public final int yearLabelTextSize;
+    public final int selectedYearLabelTextSize;
+    public final int yearLabelMargin;
+
+    private PickerTheme(Context context) {
+        Resources res = context.getResources();
+        mConfiguration = new Configuration(res.getConfiguration());
+
+        primaryColor = Utils.getPrimaryColor(context);
+        disabledTextColor = res.getColor(R.color.done_text_color_disabled);
+        buttonTextColors = new ColorStateList(new int[][]{
+                new int[]{android.R.attr.state_enabled},
+                new int[]{-android.R.attr.state_enabled},
+        }, new int[]{primaryColor, disabledTextColor});
+
+        String sansSerif = res.getString(R.string.sans_serif);
+        sansSerifTypeface = Utils.getTypeface(sansSerif, Typeface.NORMAL);
+        sansSerifBoldTypeface = Utils.getTypeface(sansSerif, Typeface.BOLD);
+        dayOfWeekTypeface = Utils.getTypeface(res.getString(R.string.day_of_week_label_typeface), Typeface.NORMAL);
+        radialNumbersTypeface = Utils.getTypeface(res.getString(R.string.radial_numbers_typeface), Typeface.NORMAL);
+
+        circleBackgroundColor = res.getColor(R.color.circle_background);
+        transparentBlackColor = res.getColor(R.color.transparent_black);
+        dayTextColor = res.getColor(R.color.date_picker_text_normal);
+        selectedDayTextColor = res.getColor(R.color.date_picker_text_selected);
+        amPmTextColor = res.getColor(R.color.ampm_text_color_normal);
+        selectedAmPmTextColor = res.getColor(R.color.ampm_text_color_selected);
+        numbersTextColor = res.getColor(R.color.numbers_text_color);
+
+        dayNumberTextSize = res.getDimensionPixelSize(R.dimen.day_number_size);
+        monthLabelTextSize = res.getDimensionPixelSize(R.dimen.month_label_size);
+        monthDayLabelTextSize = res.getDimensionPixelSize(R.dimen.month_day_label_text_size);
+        monthHeaderSize = res.getDimensionPixelOffset(R.dimen.month_list_item_header_height);
+        monthViewBottomPadding = res.getDimensionPixelOffset(R.dimen.month_view_bottom_pad);
+        daySelectedCircleRadius = res.getDimensionPixelSize(R.dimen.day_number_select_circle_radius);
+        decorationDotRadius = res.getDimensionPixelSize(R.dimen.day_decoration_dot_radius);
+        decorationOffset = res.getDimensionPixelOffset(R.dimen.day_decoration_offset);
+        decorationLabelTextSize = res.getDimensionPixelSize(R.dimen.day_decoration_label_size);
+        dayPickerHeight = res.getDimensionPixelOffset(R.dimen.date_picker_view_animator_height);
+
+        yearLabelTextSize = res.getDimensionPixelSize(R.dimen.year_label_text_size);
+        selectedYearLabelTextSize = res.getDimensionPixelSize(R.dimen.year_label_selected_text_size);
+        yearLabelMargin = res.getDimensionPixelOffset(R.dimen.year_label_margin_top_bottom);
+    }
+
+    /**
+     * @return the snapshot for the theme of the context, resolving it on first use.
+     */
+    public static PickerTheme get(Context context) {
+        Resources.Theme theme = context.getTheme();
+        Configuration configuration = context.getResources().getConfiguration();
+        synchronized (sThemes) {
+            PickerTheme pickerTheme = sThemes.get(theme);
+            if (pickerTheme == null || !pickerTheme.mConfiguration.equals(configuration)) {
+                pickerTheme = new PickerTheme(context);
+                sThemes.put(theme, pickerTheme);
+            }
+            return pickerTheme;
+        }
+    }
+}
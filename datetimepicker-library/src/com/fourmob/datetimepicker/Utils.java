@@ -5,16 +5,18 @@ import android.content.Context;
 import android.content.res.ColorStateList;
 import android.content.res.TypedArray;
 import android.graphics.Color;
+import android.graphics.Typeface;
 import android.os.Build;
 import android.util.TypedValue;
 import android.view.View;
 import android.view.accessibility.AccessibilityManager;
 
+import com.fourmob.datetimepicker.date.CalendarMath;
 import com.nineoldandroids.animation.Keyframe;
 import com.nineoldandroids.animation.ObjectAnimator;
 import com.nineoldandroids.animation.PropertyValuesHolder;
 
-import java.util.Calendar;
+import java.util.HashMap;
 
 
 public class Utils {
@@ -22,26 +24,15 @@ public class Utils {
     public static final int PULSE_ANIMATOR_DURATION = 544;
     public static final int MONTHS_IN_YEAR = 12;
 
+    // Typefaces by family name, each indexed by style.
+    private static final HashMap<String, Typeface[]> sTypefaces = new HashMap<>();
+
+    /**
+     * @deprecated Use {@link CalendarMath#getDaysInMonth} instead.
+     */
+	@Deprecated
 	public static int getDaysInMonth(int month, int year) {
-        switch (month) {
-            case Calendar.JANUARY:
-            case Calendar.MARCH:
-            case Calendar.MAY:
-            case Calendar.JULY:
-            case Calendar.AUGUST:
-            case Calendar.OCTOBER:
-            case Calendar.DECEMBER:
-                return 31;
-            case Calendar.APRIL:
-            case Calendar.JUNE:
-            case Calendar.SEPTEMBER:
-            case Calendar.NOVEMBER:
-                return 30;
-            case Calendar.FEBRUARY:
-                return (year % 4 == 0) ? 29 : 28;
-            default:
-                throw new IllegalArgumentException("Invalid Month");
-        }
+        return CalendarMath.getDaysInMonth(month, year);
 	}
 
     public static int getMonthsBetweenDates(int startMonth, int startYear, int endMonth, int endYear) {
@@ -85,6 +76,24 @@ public class Utils {
         }
     }
 
+    /**
+     * Same as {@link Typeface#create(String, int)}, but older releases don't cache the result so
+     * the typefaces of the pickers are kept here. Safe to call from any thread.
+     */
+    public static Typeface getTypeface(String familyName, int style) {
+        synchronized (sTypefaces) {
+            Typeface[] typefaces = sTypefaces.get(familyName);
+            if (typefaces == null) {
+                typefaces = new Typeface[Typeface.BOLD_ITALIC + 1];
+                sTypefaces.put(familyName, typefaces);
+            }
+            if (typefaces[style] == null) {
+                typefaces[style] = Typeface.create(familyName, style);
+            }
+            return typefaces[style];
+        }
+    }
+
     public static int getColorAttribute(Context context, int attribute) {
         TypedValue typedValue = new TypedValue();
 
@@ -7,14 +7,22 @@ import android.view.accessibility.AccessibilityEvent;
 import android.widget.ViewAnimator;
 
 public class AccessibleDateAnimator extends ViewAnimator {
-    private long mDateMillis;
+    private CalendarDay mDate;
 
     public AccessibleDateAnimator(Context context, AttributeSet attrs) {
         super(context, attrs);
     }
 
+    /**
+     * @deprecated Use {@link #setDate(CalendarDay)} instead, which covers every supported year.
+     */
+    @Deprecated
     public void setDateMillis(long dateMillis) {
-        mDateMillis = dateMillis;
+        setDate(new CalendarDay(dateMillis));
+    }
+
+    public void setDate(CalendarDay date) {
+        mDate = date;
     }
 
     /**
@@ -22,13 +30,13 @@ public class AccessibleDateAnimator extends ViewAnimator {
      */
     @Override
     public boolean dispatchPopulateAccessibilityEvent(AccessibilityEvent event) {
-        if (event.getEventType() == AccessibilityEvent.TYPE_WINDOW_STATE_CHANGED) {
+        if (event.getEventType() == AccessibilityEvent.TYPE_WINDOW_STATE_CHANGED && mDate != null) {
             // Clear the event's current text so that only the current date will be spoken.
             event.getText().clear();
             int flags = DateUtils.FORMAT_SHOW_DATE | DateUtils.FORMAT_SHOW_YEAR |
                     DateUtils.FORMAT_SHOW_WEEKDAY;
 
-            String dateString = DateUtils.formatDateTime(getContext(), mDateMillis, flags);
+            String dateString = CalendarTextCache.getInstance().formatDate(getContext(), mDate.year, mDate.month, mDate.day, flags);
             event.getText().add(dateString);
             return true;
         }
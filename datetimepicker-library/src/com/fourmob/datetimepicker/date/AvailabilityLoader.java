@@ -0,0 +1,51 @@
+package com.fourmob.datetimepicker.date;
+
+import com.fourmob.datetimepicker.PickerExecutor;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Loads the available days of a window of months from an {@link AvailabilityProvider}.
+ */
+public class AvailabilityLoader extends MonthLoader<Integer> {
+
+    private static final Integer ALL_DAYS = 0xffffffff;
+
+    private final AvailabilityProvider mProvider;
+
+    public AvailabilityLoader(AvailabilityProvider provider) {
+        mProvider = provider;
+    }
+
+    @Override
+    protected Integer loadMonth(int year, int month) {
+        return mProvider.getAvailableDays(year, month);
+    }
+
+    /**
+     * Every day is available in a month whose availability couldn't be loaded, the constraints and
+     * min and max dates still apply.
+     */
+    @Override
+    protected Integer getFallback(int year, int month) {
+        return ALL_DAYS;
+    }
+
+    /**
+     * Providers may be slow, so they're queried on their own thread rather than holding up the
+     * decorations and prewarming of every picker.
+     */
+    @Override
+    protected ExecutorService getExecutor() {
+        return PickerExecutor.getAvailabilityInstance();
+    }
+
+    /**
+     * @return the mask of available days of the month, or 0 if it hasn't been loaded yet.
+     * @see CalendarMath#getMonthIndex(int, int)
+     */
+    public int getAvailableDays(int monthIndex) {
+        Integer availableDays = get(monthIndex);
+        return availableDays != null ? availableDays : 0;
+    }
+}
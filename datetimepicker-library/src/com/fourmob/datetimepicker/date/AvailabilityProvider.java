@@ -0,0 +1,18 @@
+package com.fourmob.datetimepicker.date;
+
+/**
+ * Source of the days which may be picked, for data which is too expensive to query on the UI
+ * thread. Months are requested lazily on a background thread as the user swipes through the
+ * picker, see {@link AvailabilityLoader}.
+ */
+public interface AvailabilityProvider {
+
+    /**
+     * Called on a background thread. Implementations may check {@link Thread#isInterrupted()} to
+     * give up early when the month is no longer needed.
+     *
+     * @param month from {@link java.util.Calendar#JANUARY} to {@link java.util.Calendar#DECEMBER}.
+     * @return a mask where bit (day - 1) is set when that day of the month is available.
+     */
+    int getAvailableDays(int year, int month);
+}
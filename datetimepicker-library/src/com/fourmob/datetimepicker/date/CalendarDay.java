@@ -8,14 +8,18 @@ import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.TimeZone;
 
-public class CalendarDay implements Parcelable {
-    private Calendar calendar;
-
+public class CalendarDay implements Parcelable, Comparable<CalendarDay> {
     public final int day;
     public final int month;
     public final int year;
 
+    /**
+     * Days since 1970-01-01, used for all comparisons so they never need to allocate.
+     */
+    private final int epochDay;
+
     public CalendarDay() {
         this(System.currentTimeMillis());
     }
@@ -24,28 +28,34 @@ public class CalendarDay implements Parcelable {
         this.year = year;
         this.month = month;
         this.day = day;
+        this.epochDay = CalendarMath.toEpochDay(year, month, day);
     }
 
     public CalendarDay(long timeInMillis) {
-        if (calendar == null) {
-            calendar = Calendar.getInstance();
-        }
+        Calendar calendar = CalendarMath.newGregorianCalendar(TimeZone.getDefault());
         calendar.setTimeInMillis(timeInMillis);
-        month = this.calendar.get(Calendar.MONTH);
-        year = this.calendar.get(Calendar.YEAR);
-        day = this.calendar.get(Calendar.DAY_OF_MONTH);
+        month = calendar.get(Calendar.MONTH);
+        year = calendar.get(Calendar.YEAR);
+        day = calendar.get(Calendar.DAY_OF_MONTH);
+        epochDay = CalendarMath.toEpochDay(year, month, day);
     }
 
     public CalendarDay(Calendar calendar) {
-        year = calendar.get(Calendar.YEAR);
-        month = calendar.get(Calendar.MONTH);
-        day = calendar.get(Calendar.DAY_OF_MONTH);
+        this(calendar.get(Calendar.YEAR), calendar.get(Calendar.MONTH), calendar.get(Calendar.DAY_OF_MONTH));
+    }
+
+    /**
+     * @return the day the given number of days after 1970-01-01.
+     */
+    public static CalendarDay fromEpochDay(int epochDay) {
+        int monthIndex = CalendarMath.getMonthIndexFromEpochDay(epochDay);
+        int year = CalendarMath.getYearFromMonthIndex(monthIndex);
+        int month = CalendarMath.getMonthFromMonthIndex(monthIndex);
+        return new CalendarDay(year, month, epochDay - CalendarMath.toEpochDay(year, month, 1) + 1);
     }
 
     private CalendarDay(Parcel in) {
-        year = in.readInt();
-        month = in.readInt();
-        day = in.readInt();
+        this(in.readInt(), in.readInt(), in.readInt());
     }
 
     public static final Creator CREATOR = new Creator() {
@@ -70,26 +80,57 @@ public class CalendarDay implements Parcelable {
         dest.writeInt(day);
     }
 
+    /**
+     * @return the number of days between 1970-01-01 and this day.
+     */
+    public int getEpochDay() {
+        return epochDay;
+    }
+
+    /**
+     * @return the number of days from this day to the given day, negative if the given day is earlier.
+     */
+    public int daysBetween(CalendarDay day) {
+        return day.epochDay - epochDay;
+    }
+
+    @Override
+    public int compareTo(CalendarDay day) {
+        return epochDay < day.epochDay ? -1 : (epochDay == day.epochDay ? 0 : 1);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof CalendarDay && ((CalendarDay) o).epochDay == epochDay;
+    }
+
     public boolean equals(CalendarDay o) {
-        if (o.year == year && o.day == day && o.month == month) {
-            return true;
-        } else return false;
+        return o != null && o.epochDay == epochDay;
+    }
+
+    @Override
+    public int hashCode() {
+        return epochDay;
     }
 
     /**
-     * returns true if day is after day
+     * returns true if this day is after the given day
      *
      * @param day
      * @return
      */
     public boolean isAfter(CalendarDay day) {
-        return convertToDate(this).after(convertToDate(day));
+        return epochDay > day.epochDay;
     }
 
     public boolean isBefore(CalendarDay day) {
-        return convertToDate(this).before(convertToDate(day));
+        return epochDay < day.epochDay;
     }
 
+    /**
+     * @deprecated Use {@link #compareTo} or {@link #getEpochDay} instead, which don't allocate.
+     */
+    @Deprecated
     public Date convertToDate(CalendarDay day) {
         Date utilDate = null;
 
@@ -0,0 +1,162 @@
+package com.fourmob.datetimepicker.date;
+
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.TimeZone;
+
+/**
+ * Stateless proleptic Gregorian calendar arithmetic.
+ *
+ * Everything here is plain integer math, so unlike {@link Calendar} it never allocates, never
+ * recomputes fields and is safe to call from any thread. Months are indexed from 0 and days of the
+ * week use the {@link Calendar#SUNDAY} to {@link Calendar#SATURDAY} constants, matching the rest
+ * of the picker.
+ */
+public final class CalendarMath {
+
+    public static final int DAYS_IN_WEEK = 7;
+    public static final int MONTHS_IN_YEAR = 12;
+
+    // 1970-01-01 was a Thursday.
+    private static final int EPOCH_DAY_OF_WEEK = Calendar.THURSDAY;
+
+    private CalendarMath() {
+    }
+
+    public static boolean isLeapYear(int year) {
+        return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+    }
+
+    public static int getDaysInMonth(int month, int year) {
+        switch (month) {
+            case Calendar.JANUARY:
+            case Calendar.MARCH:
+            case Calendar.MAY:
+            case Calendar.JULY:
+            case Calendar.AUGUST:
+            case Calendar.OCTOBER:
+            case Calendar.DECEMBER:
+                return 31;
+            case Calendar.APRIL:
+            case Calendar.JUNE:
+            case Calendar.SEPTEMBER:
+            case Calendar.NOVEMBER:
+                return 30;
+            case Calendar.FEBRUARY:
+                return isLeapYear(year) ? 29 : 28;
+            default:
+                throw new IllegalArgumentException("Invalid Month");
+        }
+    }
+
+    /**
+     * Converts a date to the number of days since 1970-01-01.
+     */
+    public static int toEpochDay(int year, int month, int day) {
+        // Shift the year so it starts in March, which moves the leap day to the end of the year.
+        int y = month < Calendar.MARCH ? year - 1 : year;
+        int era = (y >= 0 ? y : y - 399) / 400;
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month < Calendar.MARCH ? month + 10 : month - 2) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    /**
+     * @return the month index, see {@link #getMonthIndex}, of the month containing the epoch day.
+     */
+    public static int getMonthIndexFromEpochDay(int epochDay) {
+        // The inverse of toEpochDay, with years starting in March.
+        int z = epochDay + 719468;
+        int era = (z >= 0 ? z : z - 146096) / 146097;
+        int dayOfEra = z - era * 146097;
+        int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        int shiftedMonth = (5 * dayOfYear + 2) / 153;
+        int year = yearOfEra + era * 400;
+        return shiftedMonth < 10 ? getMonthIndex(year, shiftedMonth + Calendar.MARCH) : getMonthIndex(year + 1, shiftedMonth - 10);
+    }
+
+    /**
+     * @return the day of the week of the given epoch day, from {@link Calendar#SUNDAY} to
+     * {@link Calendar#SATURDAY}.
+     */
+    public static int getDayOfWeek(int epochDay) {
+        return floorMod(epochDay + EPOCH_DAY_OF_WEEK - Calendar.SUNDAY, DAYS_IN_WEEK) + Calendar.SUNDAY;
+    }
+
+    /**
+     * @return the day of the week the first day of the month falls on.
+     */
+    public static int getFirstDayOfWeekInMonth(int year, int month) {
+        return getDayOfWeek(toEpochDay(year, month, 1));
+    }
+
+    /**
+     * @return the number of empty cells before the first day of the month when weeks start on
+     * weekStart.
+     */
+    public static int getMonthOffset(int year, int month, int weekStart) {
+        return floorMod(getFirstDayOfWeekInMonth(year, month) - weekStart, DAYS_IN_WEEK);
+    }
+
+    /**
+     * @return the number of week rows needed to show the given number of days after offset empty cells.
+     */
+    public static int getNumRows(int offset, int numDays) {
+        return (offset + numDays + DAYS_IN_WEEK - 1) / DAYS_IN_WEEK;
+    }
+
+    /**
+     * @return a mask where bit (day - 1) is set for every day of the month from fromEpochDay to
+     * toEpochDay, both included. The bounds may be {@link Integer#MIN_VALUE} or
+     * {@link Integer#MAX_VALUE} to leave the range open.
+     */
+    public static int getDayMask(int firstEpochDayOfMonth, int numDays, int fromEpochDay, int toEpochDay) {
+        // Widen to long since the bounds may be Integer.MIN_VALUE or Integer.MAX_VALUE.
+        long first = Math.max(1L, (long) fromEpochDay - firstEpochDayOfMonth + 1);
+        long last = Math.min(numDays, (long) toEpochDay - firstEpochDayOfMonth + 1);
+        if (first > last) {
+            return 0;
+        }
+        return (-1 >>> (32 - (int) last)) & (-1 << ((int) first - 1));
+    }
+
+    /**
+     * @return a single index which increases by one for each month, used to address months
+     * without having to carry a year and month pair around.
+     */
+    public static int getMonthIndex(int year, int month) {
+        return year * MONTHS_IN_YEAR + month;
+    }
+
+    public static int getYearFromMonthIndex(int monthIndex) {
+        return floorDiv(monthIndex, MONTHS_IN_YEAR);
+    }
+
+    public static int getMonthFromMonthIndex(int monthIndex) {
+        return floorMod(monthIndex, MONTHS_IN_YEAR);
+    }
+
+    /**
+     * @return a {@link GregorianCalendar} in the given time zone that follows the Gregorian rules
+     * for every year, like the methods above, instead of switching to the Julian calendar before
+     * October 1582.
+     */
+    public static GregorianCalendar newGregorianCalendar(TimeZone timeZone) {
+        GregorianCalendar calendar = new GregorianCalendar(timeZone);
+        calendar.setGregorianChange(new Date(Long.MIN_VALUE));
+        return calendar;
+    }
+
+    private static int floorDiv(int x, int y) {
+        int q = x / y;
+        return (x % y != 0 && ((x ^ y) < 0)) ? q - 1 : q;
+    }
+
+    private static int floorMod(int x, int y) {
+        int m = x % y;
+        return m < 0 ? m + y : m;
+    }
+}
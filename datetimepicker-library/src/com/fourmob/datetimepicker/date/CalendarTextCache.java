@@ -0,0 +1,248 @@
+package com.fourmob.datetimepicker.date;
+
+import android.content.Context;
+import android.text.format.DateUtils;
+
+import java.text.DateFormat;
+import java.text.DateFormatSymbols;
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.Locale;
+import java.util.TimeZone;
+
+/**
+ * Process wide cache of the strings drawn by the date picker: day numbers, weekday initials,
+ * month titles and years. Everything is built lazily for the current default locale and thrown
+ * away when the locale changes, so drawing a month never has to format anything.
+ */
+public final class CalendarTextCache {
+    private static final int MAX_CACHED_TITLES = 24;
+    private static final int MAX_CACHED_YEARS = 64;
+
+    // DateUtils is backed by a 32 bit time_t on older releases and switches to the Julian calendar
+    // before 1582, so dates outside of these years are formatted with a proleptic Gregorian
+    // DateFormat instead. https://code.google.com/p/android/issues/detail?id=13050
+    private static final int MIN_DATE_UTILS_YEAR = 1902;
+    private static final int MAX_DATE_UTILS_YEAR = 2037;
+
+    private static final CalendarTextCache sInstance = new CalendarTextCache();
+
+    private Locale mLocale;
+    private String[] mDayNumbers;
+    // Weekday initials ordered for each week start, indexed by the week start.
+    private final String[][] mWeekdayLabels = new String[Calendar.SATURDAY + 1][];
+    private final IntLruCache<String> mMonthTitles = new IntLruCache<>(MAX_CACHED_TITLES);
+    private final IntLruCache<String> mYearLabels = new IntLruCache<>(MAX_CACHED_YEARS);
+    private DateFormat mMonthTitleFormat;
+    // Long and full date formats, with and without the year, see getDateFormat.
+    private final DateFormat[] mDateFormats = new DateFormat[4];
+
+    private CalendarTextCache() {
+    }
+
+    public static CalendarTextCache getInstance() {
+        return sInstance;
+    }
+
+    /**
+     * @return the localized number for a day of the month, from 1 to 31.
+     */
+    public String getDayNumber(int day) {
+        return getDayNumbers()[day];
+    }
+
+    /**
+     * @return the localized numbers of the days of the month, indexed by day from 1 to 31. The
+     * array is shared and must not be modified.
+     */
+    public synchronized String[] getDayNumbers() {
+        ensureLocale();
+        if (mDayNumbers == null) {
+            mDayNumbers = new String[32];
+            for (int i = 1; i < mDayNumbers.length; i++) {
+                mDayNumbers[i] = String.format(mLocale, "%d", i);
+            }
+        }
+        return mDayNumbers;
+    }
+
+    /**
+     * @return the upper case initials of the seven weekdays, starting from weekStart.
+     */
+    public synchronized String[] getWeekdayLabels(int weekStart) {
+        ensureLocale();
+        String[] labels = mWeekdayLabels[weekStart];
+        if (labels == null) {
+            String[] shortWeekdays = new DateFormatSymbols(mLocale).getShortWeekdays();
+            labels = new String[CalendarMath.DAYS_IN_WEEK];
+            for (int i = 0; i < labels.length; i++) {
+                int dayOfWeek = (weekStart - Calendar.SUNDAY + i) % CalendarMath.DAYS_IN_WEEK + Calendar.SUNDAY;
+                labels[i] = shortWeekdays[dayOfWeek].toUpperCase(mLocale).substring(0, 1);
+            }
+            mWeekdayLabels[weekStart] = labels;
+        }
+        return labels;
+    }
+
+    /**
+     * @return the localized month and year shown above a month.
+     */
+    public synchronized String getMonthTitle(Context context, int year, int month) {
+        ensureLocale();
+        int monthIndex = CalendarMath.getMonthIndex(year, month);
+        String title = mMonthTitles.get(monthIndex);
+        if (title == null) {
+            // The month is addressed as a UTC day so no time zone dependent Calendar is needed.
+            long millis = getUtcMillis(year, month, 1);
+            if (isDateUtilsYear(year)) {
+                int flags = DateUtils.FORMAT_SHOW_DATE | DateUtils.FORMAT_SHOW_YEAR | DateUtils.FORMAT_NO_MONTH_DAY | DateUtils.FORMAT_UTC;
+                title = DateUtils.formatDateRange(context, millis, millis, flags);
+            } else {
+                if (mMonthTitleFormat == null) {
+                    mMonthTitleFormat = newUtcDateFormat(newMonthTitleFormat(mLocale));
+                }
+                title = mMonthTitleFormat.format(millis);
+            }
+            mMonthTitles.put(monthIndex, title);
+        }
+        return title;
+    }
+
+    /**
+     * @return the localized number of a year, as shown in the year list.
+     */
+    public synchronized String getYearLabel(int year) {
+        ensureLocale();
+        String label = mYearLabels.get(year);
+        if (label == null) {
+            label = String.format(mLocale, "%d", year);
+            mYearLabels.put(year, label);
+        }
+        return label;
+    }
+
+    /**
+     * Formats a day with {@link DateUtils#formatDateTime} flags. Outside of the years DateUtils
+     * handles, only {@link DateUtils#FORMAT_SHOW_WEEKDAY} and {@link DateUtils#FORMAT_NO_YEAR}
+     * are honoured and the day is shown as a long or full date. Not cached.
+     */
+    public synchronized String formatDate(Context context, int year, int month, int day, int flags) {
+        ensureLocale();
+        long millis = getUtcMillis(year, month, day);
+        if (isDateUtilsYear(year)) {
+            return DateUtils.formatDateTime(context, millis, flags | DateUtils.FORMAT_UTC);
+        }
+        return getDateFormat((flags & DateUtils.FORMAT_SHOW_WEEKDAY) != 0, (flags & DateUtils.FORMAT_NO_YEAR) != 0).format(millis);
+    }
+
+    private DateFormat getDateFormat(boolean showWeekday, boolean noYear) {
+        int index = (showWeekday ? 1 : 0) + (noYear ? 2 : 0);
+        if (mDateFormats[index] == null) {
+            DateFormat format = DateFormat.getDateInstance(showWeekday ? DateFormat.FULL : DateFormat.LONG, mLocale);
+            if (noYear && format instanceof SimpleDateFormat) {
+                SimpleDateFormat simpleFormat = (SimpleDateFormat) format;
+                simpleFormat.applyPattern(removeYear(simpleFormat.toPattern()));
+            }
+            mDateFormats[index] = newUtcDateFormat(format);
+        }
+        return mDateFormats[index];
+    }
+
+    /**
+     * @return the month title pattern with the stand-alone month name, as in a calendar header,
+     * or with the format month name where stand-alone names aren't supported.
+     */
+    private static DateFormat newMonthTitleFormat(Locale locale) {
+        try {
+            return new SimpleDateFormat("LLLL y", locale);
+        } catch (IllegalArgumentException e) {
+            return new SimpleDateFormat("MMMM y", locale);
+        }
+    }
+
+    /**
+     * Removes the year field of a date pattern together with the text separating it from the
+     * other fields, such as "MMMM d, y" to "MMMM d" or "y. MMMM d." to "MMMM d.". A year at the
+     * end also takes any text after it, such as an abbreviation of the word year.
+     */
+    private static String removeYear(String pattern) {
+        int length = pattern.length();
+        // Start and end of the year field, and the end of the field before it and the start of the field after it.
+        int yearStart = -1;
+        int yearEnd = -1;
+        int previousFieldEnd = 0;
+        int nextFieldStart = length;
+        boolean quoted = false;
+        int i = 0;
+        while (i < length) {
+            char c = pattern.charAt(i);
+            if (c == '\'') {
+                quoted = !quoted;
+                i++;
+            } else if (!quoted && isPatternLetter(c)) {
+                int fieldEnd = i + 1;
+                while (fieldEnd < length && pattern.charAt(fieldEnd) == c) {
+                    fieldEnd++;
+                }
+                if (yearStart < 0 && (c == 'y' || c == 'Y' || c == 'u')) {
+                    yearStart = i;
+                    yearEnd = fieldEnd;
+                } else if (yearStart < 0) {
+                    previousFieldEnd = fieldEnd;
+                } else {
+                    nextFieldStart = i;
+                    break;
+                }
+                i = fieldEnd;
+            } else {
+                i++;
+            }
+        }
+
+        if (yearStart < 0) {
+            return pattern;
+        }
+        if (nextFieldStart == length && previousFieldEnd > 0) {
+            // Trailing year, drop everything after the field before it.
+            return pattern.substring(0, previousFieldEnd);
+        }
+        // Otherwise drop the year up to the next field, which keeps the separator before it.
+        return pattern.substring(0, yearStart) + pattern.substring(nextFieldStart);
+    }
+
+    private static boolean isPatternLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean isDateUtilsYear(int year) {
+        return year >= MIN_DATE_UTILS_YEAR && year <= MAX_DATE_UTILS_YEAR;
+    }
+
+    private static long getUtcMillis(int year, int month, int day) {
+        return CalendarMath.toEpochDay(year, month, day) * DateUtils.DAY_IN_MILLIS;
+    }
+
+    private static DateFormat newUtcDateFormat(DateFormat format) {
+        format.setCalendar(CalendarMath.newGregorianCalendar(TimeZone.getTimeZone("UTC")));
+        return format;
+    }
+
+    private void ensureLocale() {
+        Locale locale = Locale.getDefault();
+        if (locale != mLocale && !locale.equals(mLocale)) {
+            mLocale = locale;
+            mDayNumbers = null;
+            for (int i = 0; i < mWeekdayLabels.length; i++) {
+                mWeekdayLabels[i] = null;
+            }
+            mMonthTitles.clear();
+            mYearLabels.clear();
+            mMonthTitleFormat = null;
+            for (int i = 0; i < mDateFormats.length; i++) {
+                mDateFormats[i] = null;
+            }
+            // The layers have the title, weekday labels and day numbers of the old locale drawn in.
+            MonthLayerCache.getInstance().clear();
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.fourmob.datetimepicker.date;
+
+/**
+ * Sparse set of days, stored as 64 bit words keyed by epoch day / 64.
+ *
+ * Only words with at least one day set are kept, in a sorted array, so a selection spread over
+ * many years stays small. The days of a month can be read back as a single 31 bit mask, which
+ * is what {@link SimpleMonthView} draws from. Not thread safe.
+ */
+public class DateBitSet {
+    private static final int WORD_SHIFT = 6;
+    private static final int WORD_MASK = (1 << WORD_SHIFT) - 1;
+
+    private int[] mWordIndexes = new int[4];
+    private long[] mWords = new long[4];
+    private int mSize;
+
+    public DateBitSet() {
+    }
+
+    public DateBitSet(int[] epochDays) {
+        for (int epochDay : epochDays) {
+            add(epochDay);
+        }
+    }
+
+    public boolean contains(int epochDay) {
+        int index = indexOf(epochDay >> WORD_SHIFT);
+        return index >= 0 && (mWords[index] & (1L << (epochDay & WORD_MASK))) != 0;
+    }
+
+    public void add(int epochDay) {
+        int wordIndex = epochDay >> WORD_SHIFT;
+        int index = indexOf(wordIndex);
+        if (index < 0) {
+            index = ~index;
+            insertWordAt(index, wordIndex);
+        }
+        mWords[index] |= 1L << (epochDay & WORD_MASK);
+    }
+
+    public void remove(int epochDay) {
+        int index = indexOf(epochDay >> WORD_SHIFT);
+        if (index >= 0) {
+            mWords[index] &= ~(1L << (epochDay & WORD_MASK));
+            if (mWords[index] == 0) {
+                removeWordAt(index);
+            }
+        }
+    }
+
+    /**
+     * @return whether the day is in the set after toggling it.
+     */
+    public boolean toggle(int epochDay) {
+        if (contains(epochDay)) {
+            remove(epochDay);
+            return false;
+        }
+        add(epochDay);
+        return true;
+    }
+
+    public void clear() {
+        mSize = 0;
+    }
+
+    public boolean isEmpty() {
+        return mSize == 0;
+    }
+
+    public int size() {
+        int size = 0;
+        for (int i = 0; i < mSize; i++) {
+            size += Long.bitCount(mWords[i]);
+        }
+        return size;
+    }
+
+    /**
+     * @return a mask where bit (day - 1) is set when that day of the month is in the set.
+     */
+    public int getMonthBits(int year, int month) {
+        int firstEpochDay = CalendarMath.toEpochDay(year, month, 1);
+        int numDays = CalendarMath.getDaysInMonth(month, year);
+
+        // A month spans at most two words.
+        int wordIndex = firstEpochDay >> WORD_SHIFT;
+        int shift = firstEpochDay & WORD_MASK;
+        long bits = getWord(wordIndex) >>> shift;
+        if (shift + numDays > Long.SIZE) {
+            bits |= getWord(wordIndex + 1) << (Long.SIZE - shift);
+        }
+        return (int) bits & (-1 >>> (Integer.SIZE - numDays));
+    }
+
+    /**
+     * @return every day in the set as epoch days, in ascending order.
+     */
+    public int[] toEpochDays() {
+        int[] epochDays = new int[size()];
+        int count = 0;
+        for (int i = 0; i < mSize; i++) {
+            long word = mWords[i];
+            while (word != 0) {
+                int bit = Long.numberOfTrailingZeros(word);
+                epochDays[count++] = (mWordIndexes[i] << WORD_SHIFT) + bit;
+                word &= word - 1;
+            }
+        }
+        return epochDays;
+    }
+
+    private long getWord(int wordIndex) {
+        int index = indexOf(wordIndex);
+        return index >= 0 ? mWords[index] : 0;
+    }
+
+    private int indexOf(int wordIndex) {
+        int low = 0;
+        int high = mSize - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int value = mWordIndexes[middle];
+            if (value < wordIndex) {
+                low = middle + 1;
+            } else if (value > wordIndex) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return ~low;
+    }
+
+    private void insertWordAt(int index, int wordIndex) {
+        if (mSize == mWords.length) {
+            int[] wordIndexes = new int[mSize * 2];
+            long[] words = new long[mSize * 2];
+            System.arraycopy(mWordIndexes, 0, wordIndexes, 0, mSize);
+            System.arraycopy(mWords, 0, words, 0, mSize);
+            mWordIndexes = wordIndexes;
+            mWords = words;
+        }
+        System.arraycopy(mWordIndexes, index, mWordIndexes, index + 1, mSize - index);
+        System.arraycopy(mWords, index, mWords, index + 1, mSize - index);
+        mWordIndexes[index] = wordIndex;
+        mWords[index] = 0;
+        mSize++;
+    }
+
+    private void removeWordAt(int index) {
+        System.arraycopy(mWordIndexes, index + 1, mWordIndexes, index, mSize - index - 1);
+        System.arraycopy(mWords, index + 1, mWords, index, mSize - index - 1);
+        mSize--;
+    }
+}
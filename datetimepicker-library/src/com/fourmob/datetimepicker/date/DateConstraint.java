@@ -0,0 +1,196 @@
+package com.fourmob.datetimepicker.date;
+
+import android.os.Parcel;
+import android.os.Parcelable;
+
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collection;
+
+/**
+ * Immutable set of rules disabling dates in the picker, on top of the min and max dates.
+ *
+ * Individual days, ranges and days of the week can be disabled. The rules are compiled into a
+ * 32 bit mask per month the first time a month is shown, so checking a day costs a single bit
+ * test no matter how many rules there are. Use a {@link Builder} to create one.
+ */
+public final class DateConstraint implements Parcelable {
+    private static final int MAX_CACHED_MONTHS = 24;
+
+    // Sorted and without duplicates, so a month's days can be found with a binary search.
+    private final int[] mDisabledDays;
+
+    // Inclusive start and end epoch days, flattened into pairs.
+    private final int[] mDisabledRanges;
+
+    // Bit n is set when the day of the week n (from Calendar.SUNDAY) is disabled.
+    private final int mDisabledDaysOfWeek;
+
+    private final IntLruCache<Integer> mEnabledDaysCache = new IntLruCache<>(MAX_CACHED_MONTHS);
+
+    private DateConstraint(int[] disabledDays, int[] disabledRanges, int disabledDaysOfWeek) {
+        mDisabledDays = disabledDays;
+        mDisabledRanges = disabledRanges;
+        mDisabledDaysOfWeek = disabledDaysOfWeek;
+    }
+
+    private DateConstraint(Parcel in) {
+        this(in.createIntArray(), in.createIntArray(), in.readInt());
+    }
+
+    public static final Creator<DateConstraint> CREATOR = new Creator<DateConstraint>() {
+        public DateConstraint createFromParcel(Parcel in) {
+            return new DateConstraint(in);
+        }
+
+        public DateConstraint[] newArray(int size) {
+            return new DateConstraint[size];
+        }
+    };
+
+    @Override
+    public int describeContents() {
+        return 0;
+    }
+
+    @Override
+    public void writeToParcel(Parcel dest, int flags) {
+        dest.writeIntArray(mDisabledDays);
+        dest.writeIntArray(mDisabledRanges);
+        dest.writeInt(mDisabledDaysOfWeek);
+    }
+
+    /**
+     * @return a mask where bit (day - 1) is set when that day of the month isn't disabled by any rule.
+     */
+    public int getEnabledDays(int year, int month) {
+        int monthIndex = CalendarMath.getMonthIndex(year, month);
+        Integer enabledDays = mEnabledDaysCache.get(monthIndex);
+        if (enabledDays == null) {
+            enabledDays = computeEnabledDays(year, month);
+            mEnabledDaysCache.put(monthIndex, enabledDays);
+        }
+        return enabledDays;
+    }
+
+    public boolean isEnabled(int epochDay) {
+        if ((mDisabledDaysOfWeek & (1 << CalendarMath.getDayOfWeek(epochDay))) != 0) {
+            return false;
+        }
+        if (Arrays.binarySearch(mDisabledDays, epochDay) >= 0) {
+            return false;
+        }
+        for (int i = 0; i < mDisabledRanges.length; i += 2) {
+            if (epochDay >= mDisabledRanges[i] && epochDay <= mDisabledRanges[i + 1]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean isEnabled(CalendarDay day) {
+        return isEnabled(day.getEpochDay());
+    }
+
+    private int computeEnabledDays(int year, int month) {
+        int firstEpochDay = CalendarMath.toEpochDay(year, month, 1);
+        int numDays = CalendarMath.getDaysInMonth(month, year);
+        int lastEpochDay = firstEpochDay + numDays - 1;
+        int enabledDays = -1 >>> (32 - numDays);
+
+        if (mDisabledDaysOfWeek != 0) {
+            int dayOfWeek = CalendarMath.getDayOfWeek(firstEpochDay);
+            for (int i = 0; i < numDays; i++) {
+                if ((mDisabledDaysOfWeek & (1 << dayOfWeek)) != 0) {
+                    enabledDays &= ~(1 << i);
+                }
+                dayOfWeek = dayOfWeek == Calendar.SATURDAY ? Calendar.SUNDAY : dayOfWeek + 1;
+            }
+        }
+
+        int index = Arrays.binarySearch(mDisabledDays, firstEpochDay);
+        for (int i = index >= 0 ? index : -index - 1; i < mDisabledDays.length && mDisabledDays[i] <= lastEpochDay; i++) {
+            enabledDays &= ~(1 << (mDisabledDays[i] - firstEpochDay));
+        }
+
+        for (int i = 0; i < mDisabledRanges.length; i += 2) {
+            int start = Math.max(mDisabledRanges[i], firstEpochDay);
+            int end = Math.min(mDisabledRanges[i + 1], lastEpochDay);
+            for (int epochDay = start; epochDay <= end; epochDay++) {
+                enabledDays &= ~(1 << (epochDay - firstEpochDay));
+            }
+        }
+        return enabledDays;
+    }
+
+    private static int[] copyOf(int[] array, int length) {
+        // Arrays.copyOf needs API 9.
+        int[] copy = new int[length];
+        System.arraycopy(array, 0, copy, 0, Math.min(array.length, length));
+        return copy;
+    }
+
+    public static class Builder {
+        private int[] mDisabledDays = new int[16];
+        private int mDisabledDaysCount;
+        private int[] mDisabledRanges = new int[0];
+        private int mDisabledDaysOfWeek;
+
+        public Builder disableDay(CalendarDay day) {
+            if (mDisabledDaysCount == mDisabledDays.length) {
+                mDisabledDays = copyOf(mDisabledDays, mDisabledDaysCount * 2);
+            }
+            mDisabledDays[mDisabledDaysCount++] = day.getEpochDay();
+            return this;
+        }
+
+        public Builder disableDays(Collection<CalendarDay> days) {
+            for (CalendarDay day : days) {
+                disableDay(day);
+            }
+            return this;
+        }
+
+        /**
+         * Disables every day from start to end, both included.
+         */
+        public Builder disableRange(CalendarDay start, CalendarDay end) {
+            if (start.isAfter(end)) {
+                throw new IllegalArgumentException("start must not be after end");
+            }
+            int length = mDisabledRanges.length;
+            mDisabledRanges = copyOf(mDisabledRanges, length + 2);
+            mDisabledRanges[length] = start.getEpochDay();
+            mDisabledRanges[length + 1] = end.getEpochDay();
+            return this;
+        }
+
+        /**
+         * @param dayOfWeek from {@link Calendar#SUNDAY} to {@link Calendar#SATURDAY}.
+         */
+        public Builder disableDayOfWeek(int dayOfWeek) {
+            if (dayOfWeek < Calendar.SUNDAY || dayOfWeek > Calendar.SATURDAY) {
+                throw new IllegalArgumentException("Invalid day of week");
+            }
+            mDisabledDaysOfWeek |= 1 << dayOfWeek;
+            return this;
+        }
+
+        public Builder disableWeekends() {
+            return disableDayOfWeek(Calendar.SATURDAY).disableDayOfWeek(Calendar.SUNDAY);
+        }
+
+        public DateConstraint build() {
+            int[] days = copyOf(mDisabledDays, mDisabledDaysCount);
+            Arrays.sort(days);
+
+            int count = 0;
+            for (int i = 0; i < days.length; i++) {
+                if (count == 0 || days[count - 1] != days[i]) {
+                    days[count++] = days[i];
+                }
+            }
+            return new DateConstraint(copyOf(days, count), mDisabledRanges.clone(), mDisabledDaysOfWeek);
+        }
+    }
+}
@@ -4,6 +4,7 @@ import android.app.Activity;
 import android.content.Context;
 import android.content.res.ColorStateList;
 import android.content.res.Resources;
+import android.graphics.Typeface;
 import android.os.Bundle;
 import android.os.SystemClock;
 import android.os.Vibrator;
@@ -19,25 +20,35 @@ import android.view.animation.AlphaAnimation;
 import android.widget.Button;
 import android.widget.TextView;
 
+import com.fourmob.datetimepicker.PickerExecutor;
+import com.fourmob.datetimepicker.PickerTheme;
 import com.fourmob.datetimepicker.R;
 import com.fourmob.datetimepicker.Utils;
 import com.nineoldandroids.animation.ObjectAnimator;
 
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Collection;
+import java.util.List;
 import java.util.Locale;
+import java.util.TimeZone;
 
-public class DatePickerDialog extends DialogFragment implements View.OnClickListener, YearPickerView.YearPickerListener, DayPickerView.DayPickerListener {
+public class DatePickerDialog extends DialogFragment implements View.OnClickListener, YearPickerView.YearPickerListener, DayPickerView.DayPickerListener,
+        DayPickerView.OnRangeChangedListener {
 
     private static final String KEY_SELECTED_YEAR = "year";
     private static final String KEY_SELECTED_MONTH = "month";
     private static final String KEY_SELECTED_DAY = "day";
     private static final String KEY_VIBRATE = "vibrate";
     private static final String KEY_PULSE_ANIMATE = "pulse_animate";
+    private static final String KEY_STATIC_LAYERS = "static_layers";
+    private static final String KEY_SHARED_MONTH_VIEWS = "shared_month_views";
 
-    // https://code.google.com/p/android/issues/detail?id=13050
-    private static final CalendarDay MINIMUM_POSSIBLE_DATE = new CalendarDay(1902, 1, 1);
-    private static final CalendarDay MAXIMUM_POSSIBLE_DATE = new CalendarDay(2037, 12, 31);
+    // Days are addressed by their epoch day and formatted by CalendarTextCache, so the range is
+    // only bounded by the four digit years shown in the header and the year list.
+    private static final CalendarDay MINIMUM_POSSIBLE_DATE = new CalendarDay(1, Calendar.JANUARY, 1);
+    private static final CalendarDay MAXIMUM_POSSIBLE_DATE = new CalendarDay(9999, Calendar.DECEMBER, 31);
 
     private static final int UNINITIALIZED = -1;
     private static final int MONTH_AND_DAY_VIEW = 0;
@@ -47,14 +58,22 @@ public class DatePickerDialog extends DialogFragment implements View.OnClickList
     public static final String KEY_WEEK_START = "week_start";
     public static final String KEY_MIN_DATE = "min_date";
     public static final String KEY_MAX_DATE = "max_date";
+    public static final String KEY_DATE_CONSTRAINT = "date_constraint";
+    public static final String KEY_SELECTION_MODE = "selection_mode";
+    public static final String KEY_SELECTED_DATES = "selected_dates";
+    public static final String KEY_RANGE_START = "range_start";
+    public static final String KEY_RANGE_END = "range_end";
     public static final String KEY_CURRENT_VIEW = "current_view";
     public static final String KEY_LIST_POSITION = "list_position";
     public static final String KEY_LIST_POSITION_OFFSET = "list_position_offset";
 
     private static SimpleDateFormat DAY_MONTH_FORMAT = new SimpleDateFormat("EEE, dd MMM", Locale.getDefault());
-    private static SimpleDateFormat YEAR_FORMAT = new SimpleDateFormat("yyyy", Locale.getDefault());
 
-    private final Calendar mCalendar = Calendar.getInstance();
+    static {
+        DAY_MONTH_FORMAT.setCalendar(CalendarMath.newGregorianCalendar(TimeZone.getDefault()));
+    }
+
+    private final Calendar mCalendar = CalendarMath.newGregorianCalendar(TimeZone.getDefault());
     private OnDateSetListener mCallBack;
 
     private AccessibleDateAnimator mAnimator;
@@ -78,12 +97,22 @@ public class DatePickerDialog extends DialogFragment implements View.OnClickList
     private boolean mVibrate = true;
     private boolean mUsePulseAnimations = true;
     private boolean mCloseOnSingleTapDay;
+    private boolean mUseStaticLayers = false;
+    private boolean mUseSharedMonthViews = false;
 
     @NonNull
     private CalendarDay mMinDate = MINIMUM_POSSIBLE_DATE;
     @NonNull
     private CalendarDay mMaxDate = MAXIMUM_POSSIBLE_DATE;
 
+    private DateConstraint mDateConstraint;
+    private int mSelectionMode = DayPickerView.SELECTION_MODE_SINGLE;
+    private final DateBitSet mSelectedDates = new DateBitSet();
+    private CalendarDay mRangeStart;
+    private CalendarDay mRangeEnd;
+    private AvailabilityProvider mAvailabilityProvider;
+    private DayDecorator mDayDecorator;
+
     private boolean mIsViewInitialized = false;
 
     public DatePickerDialog() {
@@ -100,6 +129,43 @@ public class DatePickerDialog extends DialogFragment implements View.OnClickList
         return datePickerDialog;
     }
 
+    /**
+     * Warms the caches the dialog uses when it's first shown, on a background thread: the theme
+     * colors, typefaces and dimensions, the labels of the current month and year and the grid of
+     * the current month. Call it ahead of time, for example from the onCreate of an Activity which
+     * is likely to show the dialog.
+     *
+     * @param context The Activity which will show the dialog. The colors are resolved for its
+     *                theme, which is what the dialog draws with, and it is only held until the
+     *                background work has run.
+     */
+    public static void prewarm(final Context context) {
+        final Context appContext = context.getApplicationContext();
+        PickerExecutor.getInstance().execute(new Runnable() {
+            @Override
+            public void run() {
+                PickerTheme.get(context);
+
+                Resources resources = appContext.getResources();
+                Utils.getTypeface(resources.getString(R.string.sans_serif), Typeface.BOLD);
+                Utils.getTypeface(resources.getString(R.string.day_of_week_label_typeface), Typeface.NORMAL);
+
+                CalendarDay today = new CalendarDay();
+                int weekStart = Calendar.getInstance().getFirstDayOfWeek();
+                CalendarTextCache textCache = CalendarTextCache.getInstance();
+                textCache.getDayNumbers();
+                textCache.getWeekdayLabels(weekStart);
+                textCache.getMonthTitle(appContext, today.year, today.month);
+                textCache.getYearLabel(today.year);
+                textCache.formatDate(appContext, today.year, today.month, today.day, DateUtils.FORMAT_SHOW_DATE | DateUtils.FORMAT_SHOW_YEAR);
+
+                // The layout the pager asks for when the dialog opens on today without constraints.
+                MonthLayoutCache.getInstance().get(today.year, today.month, weekStart,
+                        MINIMUM_POSSIBLE_DATE.getEpochDay(), MAXIMUM_POSSIBLE_DATE.getEpochDay());
+            }
+        });
+    }
+
     private void initialize(OnDateSetListener onDateSetListener, int year, int month, int day, boolean vibrate) {
         if (year > MAXIMUM_POSSIBLE_DATE.year)
             throw new IllegalArgumentException("year end must < " + MAXIMUM_POSSIBLE_DATE.year);
@@ -139,8 +205,16 @@ public class DatePickerDialog extends DialogFragment implements View.OnClickList
                 mMaxDate = MAXIMUM_POSSIBLE_DATE;
             }
 
+            mDateConstraint = bundle.getParcelable(KEY_DATE_CONSTRAINT);
+            mSelectionMode = bundle.getInt(KEY_SELECTION_MODE);
+            setSelectedEpochDays(bundle.getIntArray(KEY_SELECTED_DATES));
+            mRangeStart = bundle.getParcelable(KEY_RANGE_START);
+            mRangeEnd = bundle.getParcelable(KEY_RANGE_END);
+
             mVibrate = bundle.getBoolean(KEY_VIBRATE);
             mUsePulseAnimations = bundle.getBoolean(KEY_PULSE_ANIMATE);
+            mUseStaticLayers = bundle.getBoolean(KEY_STATIC_LAYERS);
+            mUseSharedMonthViews = bundle.getBoolean(KEY_SHARED_MONTH_VIEWS);
         }
     }
 
@@ -170,9 +244,16 @@ public class DatePickerDialog extends DialogFragment implements View.OnClickList
         Activity activity = getActivity();
         mDayPickerView = new DayPickerView(activity, createDayPickerParams());
         mDayPickerView.setListener(this);
+        mDayPickerView.setOnRangeChangedListener(this);
+        mDayPickerView.setStaticLayersEnabled(mUseStaticLayers);
+        if (mUseSharedMonthViews) {
+            mDayPickerView.setMonthViewPool(MonthViewPool.getInstance(activity));
+        }
+        mDayPickerView.setAvailabilityProvider(mAvailabilityProvider);
+        mDayPickerView.setDayDecorator(mDayDecorator);
 
-        mYearPickerView = new YearPickerView(activity);
-        mYearPickerView.setListener(this);
+        // The year picker is only built when it's first shown, most dates are picked without it.
+        mYearPickerView = null;
 
         Resources resources = getResources();
         mDayPickerDescription = resources.getString(R.string.day_picker_description);
@@ -182,8 +263,7 @@ public class DatePickerDialog extends DialogFragment implements View.OnClickList
 
         mAnimator = ((AccessibleDateAnimator) view.findViewById(R.id.animator));
         mAnimator.addView(mDayPickerView);
-        mAnimator.addView(mYearPickerView);
-        mAnimator.setDateMillis(mCalendar.getTimeInMillis());
+        mAnimator.setDate(getSelectedDay());
 
         AlphaAnimation inAlphaAnimation = new AlphaAnimation(0.0F, 1.0F);
         inAlphaAnimation.setDuration(300L);
@@ -208,7 +288,7 @@ public class DatePickerDialog extends DialogFragment implements View.OnClickList
         });
 
         // Assign the programmatic state list drawable to allow attributes.
-        ColorStateList selector = Utils.createThemedTextColorStateList(activity);
+        ColorStateList selector = PickerTheme.get(activity).buttonTextColors;
         doneButton.setTextColor(selector);
         cancelButton.setTextColor(selector);
 
@@ -235,6 +315,11 @@ public class DatePickerDialog extends DialogFragment implements View.OnClickList
         bundle.putInt(KEY_WEEK_START, mWeekStart);
         bundle.putParcelable(KEY_MIN_DATE, mMinDate);
         bundle.putParcelable(KEY_MAX_DATE, mMaxDate);
+        bundle.putParcelable(KEY_DATE_CONSTRAINT, mDateConstraint);
+        bundle.putInt(KEY_SELECTION_MODE, mSelectionMode);
+        bundle.putIntArray(KEY_SELECTED_DATES, mSelectedDates.toEpochDays());
+        bundle.putParcelable(KEY_RANGE_START, mRangeStart);
+        bundle.putParcelable(KEY_RANGE_END, mRangeEnd);
         bundle.putInt(KEY_CURRENT_VIEW, mCurrentView);
 
         int listPosition = -1;
@@ -248,6 +333,8 @@ public class DatePickerDialog extends DialogFragment implements View.OnClickList
         bundle.putInt(KEY_LIST_POSITION, listPosition);
         bundle.putBoolean(KEY_VIBRATE, mVibrate);
         bundle.putBoolean(KEY_PULSE_ANIMATE, mUsePulseAnimations);
+        bundle.putBoolean(KEY_STATIC_LAYERS, mUseStaticLayers);
+        bundle.putBoolean(KEY_SHARED_MONTH_VIEWS, mUseSharedMonthViews);
     }
 
     @Override
@@ -267,7 +354,7 @@ public class DatePickerDialog extends DialogFragment implements View.OnClickList
         int day = mCalendar.get(Calendar.DAY_OF_MONTH);
         int month = mCalendar.get(Calendar.MONTH);
 
-        int daysInMonth = Utils.getDaysInMonth(month, year);
+        int daysInMonth = CalendarMath.getDaysInMonth(month, year);
         if (day > daysInMonth) {
             day = daysInMonth;
         }
@@ -302,7 +389,15 @@ public class DatePickerDialog extends DialogFragment implements View.OnClickList
 
     @Override
     public void onDateSelected(int year, int month, int day) {
-        setSelectedDate(year, month, day);
+        // The day picker has already repainted the changed days, only the title is left.
+        mCalendar.set(Calendar.YEAR, year);
+        mCalendar.set(Calendar.MONTH, month);
+        mCalendar.set(Calendar.DAY_OF_MONTH, day);
+        updateTitleContent(true);
+
+        if (mSelectionMode == DayPickerView.SELECTION_MODE_SINGLE && mCloseOnSingleTapDay) {
+            onDoneButtonClick();
+        }
     }
 
     public void setFirstDayOfWeek(int startOfWeek) {
@@ -378,6 +473,120 @@ public class DatePickerDialog extends DialogFragment implements View.OnClickList
         updateDayPickerParams();
     }
 
+    /**
+     * Disables the dates matched by the given rules on top of the min and max dates, or enables
+     * every date between them again when null.
+     */
+    public void setDateConstraint(DateConstraint dateConstraint) {
+        mDateConstraint = dateConstraint;
+
+        updateDayPickerParams();
+    }
+
+    /**
+     * Loads the available days lazily from the given provider, on top of the min and max dates and
+     * the date constraint. The provider isn't saved with the instance state, so it has to be set
+     * again when the dialog is recreated.
+     */
+    public void setAvailabilityProvider(AvailabilityProvider availabilityProvider) {
+        mAvailabilityProvider = availabilityProvider;
+        if (mDayPickerView != null) {
+            mDayPickerView.setAvailabilityProvider(availabilityProvider);
+        }
+    }
+
+    /**
+     * Adds dots, labels and tints to the days, computed in the background a month at a time. The
+     * decorator isn't saved with the instance state, so it has to be set again when the dialog is
+     * recreated.
+     */
+    public void setDayDecorator(DayDecorator dayDecorator) {
+        mDayDecorator = dayDecorator;
+        if (mDayPickerView != null) {
+            mDayPickerView.setDayDecorator(dayDecorator);
+        }
+    }
+
+    /**
+     * @param selectionMode {@link DayPickerView#SELECTION_MODE_SINGLE},
+     * {@link DayPickerView#SELECTION_MODE_MULTIPLE}, where tapping a day toggles it and the
+     * selection is read with {@link #getSelectedDates()}, or {@link DayPickerView#SELECTION_MODE_RANGE},
+     * where the selection is read with {@link #getRangeStart()} and {@link #getRangeEnd()}.
+     */
+    public void setSelectionMode(int selectionMode) {
+        mSelectionMode = selectionMode;
+
+        updateDayPickerParams();
+    }
+
+    /**
+     * @return the selected days in ascending order, when selecting multiple days.
+     */
+    public List<CalendarDay> getSelectedDates() {
+        int[] epochDays = mSelectedDates.toEpochDays();
+        List<CalendarDay> selectedDates = new ArrayList<>(epochDays.length);
+        for (int epochDay : epochDays) {
+            selectedDates.add(CalendarDay.fromEpochDay(epochDay));
+        }
+        return selectedDates;
+    }
+
+    /**
+     * Replaces the selected days, when selecting multiple days.
+     */
+    public void setSelectedDates(Collection<CalendarDay> selectedDates) {
+        mSelectedDates.clear();
+        for (CalendarDay selectedDate : selectedDates) {
+            mSelectedDates.add(selectedDate.getEpochDay());
+        }
+
+        updateDayPickerParams();
+    }
+
+    @Override
+    public void onRangeChanged(CalendarDay start, CalendarDay end) {
+        mRangeStart = start;
+        mRangeEnd = end;
+    }
+
+    /**
+     * @return the first day of the selected range, or null, when selecting a range.
+     */
+    public CalendarDay getRangeStart() {
+        return mRangeStart;
+    }
+
+    /**
+     * @return the last day of the selected range, or null while only its start is picked.
+     */
+    public CalendarDay getRangeEnd() {
+        return mRangeEnd;
+    }
+
+    /**
+     * Replaces the selected range, when selecting a range.
+     *
+     * @param end the last day of the range, or null to only pick its start.
+     */
+    public void setRange(CalendarDay start, CalendarDay end) {
+        if (start != null && end != null && start.isAfter(end)) {
+            throw new IllegalArgumentException("The range must not end before it starts");
+        }
+        mRangeStart = start;
+        mRangeEnd = start != null ? end : null;
+
+        updateDayPickerParams();
+    }
+
+    private void setSelectedEpochDays(int[] epochDays) {
+        mSelectedDates.clear();
+        if (epochDays != null) {
+            for (int epochDay : epochDays) {
+                mSelectedDates.add(epochDay);
+            }
+        }
+    }
+
     public void setCloseOnSingleTapDay(boolean closeOnSingleTapDay) {
         mCloseOnSingleTapDay = closeOnSingleTapDay;
     }
@@ -390,12 +599,35 @@ public class DatePickerDialog extends DialogFragment implements View.OnClickList
         mUsePulseAnimations = usePulseAnimations;
     }
 
+    /**
+     * Draws each month page from a cached bitmap while swiping, at the cost of some memory.
+     *
+     * @see SimpleMonthView#setStaticLayerEnabled(boolean)
+     */
+    public void setStaticLayersEnabled(boolean useStaticLayers) {
+        mUseStaticLayers = useStaticLayers;
+        if (mIsViewInitialized) {
+            mDayPickerView.setStaticLayersEnabled(useStaticLayers);
+        }
+    }
+
+    /**
+     * Borrows the month pages from a process wide {@link MonthViewPool} and gives them back when
+     * the dialog closes, so opening a date picker again doesn't create its month views again.
+     */
+    public void setSharedMonthViewsEnabled(boolean useSharedMonthViews) {
+        mUseSharedMonthViews = useSharedMonthViews;
+        if (mIsViewInitialized) {
+            mDayPickerView.setMonthViewPool(useSharedMonthViews ? MonthViewPool.getInstance(getActivity()) : null);
+        }
+    }
+
     private void setCurrentPicker(int pickerId) {
         setCurrentPicker(pickerId, false);
     }
 
     private void setCurrentPicker(int pickerId, boolean forceRefresh) {
-        long timeInMillis = mCalendar.getTimeInMillis();
+        CalendarDay selectedDay = getSelectedDay();
 
         TextView selectedLabel = null;
         boolean monthAndDayViewSelected = false;
@@ -410,7 +642,7 @@ public class DatePickerDialog extends DialogFragment implements View.OnClickList
                 updateDayPickerParams();
                 monthAndDayViewSelected = true;
 
-                String monthDayDesc = DateUtils.formatDateTime(getActivity(), timeInMillis, DateUtils.FORMAT_SHOW_DATE);
+                String monthDayDesc = CalendarTextCache.getInstance().formatDate(getActivity(), selectedDay.year, selectedDay.month, selectedDay.day, DateUtils.FORMAT_SHOW_DATE);
                 contentDescription = mDayPickerDescription + ": " + monthDayDesc;
                 announcement = mSelectDay;
                 break;
@@ -418,10 +650,11 @@ public class DatePickerDialog extends DialogFragment implements View.OnClickList
             case YEAR_VIEW:
                 selectedLabel = mYearView;
 
-                mYearPickerView.updateContent(getSelectedDay().year, mMinDate.year, mMaxDate.year);
+                ensureYearPickerView();
+                mYearPickerView.updateContent(selectedDay.year, mMinDate.year, mMaxDate.year);
                 yearViewSelected = true;
 
-                contentDescription = mYearPickerDescription + ": " + YEAR_FORMAT.format(timeInMillis);
+                contentDescription = mYearPickerDescription + ": " + CalendarTextCache.getInstance().getYearLabel(selectedDay.year);
                 announcement = mSelectYear;
                 break;
         }
@@ -452,22 +685,31 @@ public class DatePickerDialog extends DialogFragment implements View.OnClickList
         Utils.tryAccessibilityAnnounce(mAnimator, announcement);
     }
 
+    private void ensureYearPickerView() {
+        if (mYearPickerView == null) {
+            mYearPickerView = new YearPickerView(getActivity());
+            mYearPickerView.setListener(this);
+            mAnimator.addView(mYearPickerView, YEAR_VIEW);
+        }
+    }
+
     private void updateTitleContent(boolean announce) {
         this.mCalendar.setFirstDayOfWeek(mWeekStart);
 
         mMonthAndDayView.setText(DAY_MONTH_FORMAT.format(mCalendar.getTime()));
-        mYearView.setText(YEAR_FORMAT.format(mCalendar.getTime()));
+        CalendarDay selectedDay = getSelectedDay();
+        CalendarTextCache textCache = CalendarTextCache.getInstance();
+        mYearView.setText(textCache.getYearLabel(selectedDay.year));
 
         // Accessibility.
-        long millis = mCalendar.getTimeInMillis();
-        mAnimator.setDateMillis(millis);
+        mAnimator.setDate(selectedDay);
         int flags = DateUtils.FORMAT_SHOW_DATE | DateUtils.FORMAT_NO_YEAR;
-        String monthAndDayText = DateUtils.formatDateTime(getActivity(), millis, flags);
+        String monthAndDayText = textCache.formatDate(getActivity(), selectedDay.year, selectedDay.month, selectedDay.day, flags);
         mMonthAndDayView.setContentDescription(monthAndDayText);
 
         if (announce) {
             flags = DateUtils.FORMAT_SHOW_DATE | DateUtils.FORMAT_SHOW_YEAR;
-            String fullDateText = DateUtils.formatDateTime(getActivity(), millis, flags);
+            String fullDateText = textCache.formatDate(getActivity(), selectedDay.year, selectedDay.month, selectedDay.day, flags);
             Utils.tryAccessibilityAnnounce(mAnimator, fullDateText);
         }
     }
@@ -478,7 +720,7 @@ public class DatePickerDialog extends DialogFragment implements View.OnClickList
 
     private DayPickerView.DayPickerParams createDayPickerParams() {
         return new DayPickerView.DayPickerParams(
-                mMinDate, mMaxDate, new CalendarDay(mCalendar), mWeekStart
+                mMinDate, mMaxDate, new CalendarDay(mCalendar), mWeekStart, mDateConstraint, mSelectionMode, mSelectedDates, mRangeStart, mRangeEnd
         );
     }
 
@@ -0,0 +1,20 @@
+package com.fourmob.datetimepicker.date;
+
+/**
+ * Adds event dots, short labels and background tints to the days of a month.
+ *
+ * A month is decorated once, in a single batch on a background thread, and the result is kept in
+ * a {@link MonthDecoration} which the month view draws from. The decorator is never called while
+ * drawing, so it is free to query large data sets.
+ */
+public interface DayDecorator {
+
+    /**
+     * Called on a background thread. Implementations may check {@link Thread#isInterrupted()} to
+     * give up early when the month is no longer needed.
+     *
+     * @param month from {@link java.util.Calendar#JANUARY} to {@link java.util.Calendar#DECEMBER}.
+     * @param decoration the empty decoration of the month, to be filled in.
+     */
+    void decorate(int year, int month, MonthDecoration decoration);
+}
@@ -4,6 +4,7 @@ import android.content.Context;
 import android.content.res.ColorStateList;
 import android.graphics.drawable.Drawable;
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 import android.support.v4.graphics.drawable.DrawableCompat;
 import android.support.v4.view.ViewPager;
 import android.view.LayoutInflater;
@@ -16,6 +17,21 @@ import com.fourmob.datetimepicker.Utils;
 
 public class DayPickerView extends FrameLayout implements SimpleMonthPagerAdapter.MonthPagerListener {
 
+    /**
+     * A single day is selected, tapping a day replaces it.
+     */
+    public static final int SELECTION_MODE_SINGLE = 0;
+
+    /**
+     * Any number of days are selected, tapping a day toggles it.
+     */
+    public static final int SELECTION_MODE_MULTIPLE = 1;
+
+    /**
+     * A range of days is selected, the first tap picks its start and the second its end.
+     */
+    public static final int SELECTION_MODE_RANGE = 2;
+
     private ViewPager mViewPager;
     private SimpleMonthPagerAdapter mPagerAdapter;
 
@@ -24,6 +40,9 @@ public class DayPickerView extends FrameLayout implements SimpleMonthPagerAdapte
 
     private DayPickerListener mListener;
 
+    // The page shown when the pager was emptied into the month view pool.
+    private int mDetachedItem;
+
     public DayPickerView(Context context, DayPickerParams params) {
         super(context);
         init(context, params);
@@ -70,6 +89,7 @@ public class DayPickerView extends FrameLayout implements SimpleMonthPagerAdapte
             @Override
             public void onPageSelected(int position) {
                 updateNavigationButtons();
+                mPagerAdapter.loadMonths(position);
             }
 
             @Override
@@ -116,6 +136,7 @@ public class DayPickerView extends FrameLayout implements SimpleMonthPagerAdapte
         int position = Utils.getMonthsBetweenDates(params.minDate.month, params.minDate.year, params.selectedDate.month, params.selectedDate.year) - 1;
         mViewPager.setCurrentItem(position);
         updateNavigationButtons();
+        mPagerAdapter.loadMonths(mViewPager.getCurrentItem());
     }
 
     @Override
@@ -125,10 +146,87 @@ public class DayPickerView extends FrameLayout implements SimpleMonthPagerAdapte
         }
     }
 
+    /**
+     * Queries the given provider in the background for the available days of the month shown and
+     * its neighbours. Months are shown disabled until they are loaded.
+     */
+    public void setAvailabilityProvider(AvailabilityProvider provider) {
+        mPagerAdapter.setAvailabilityProvider(provider);
+        mPagerAdapter.loadMonths(mViewPager.getCurrentItem());
+    }
+
+    /**
+     * Reloads the available days from the provider, for when its data has changed.
+     */
+    public void invalidateAvailability() {
+        mPagerAdapter.invalidateAvailability(mViewPager.getCurrentItem());
+    }
+
+    /**
+     * Decorates the days in the background with the given decorator, a month at a time.
+     */
+    public void setDayDecorator(DayDecorator decorator) {
+        mPagerAdapter.setDayDecorator(decorator);
+        mPagerAdapter.loadMonths(mViewPager.getCurrentItem());
+    }
+
+    /**
+     * Decorates the days again, for when the decorator's data has changed.
+     */
+    public void invalidateDecorations() {
+        mPagerAdapter.invalidateDecorations(mViewPager.getCurrentItem());
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        if (mViewPager.getAdapter() == null) {
+            mViewPager.setAdapter(mPagerAdapter);
+            mViewPager.setCurrentItem(mDetachedItem, false);
+        }
+        mPagerAdapter.loadMonths(mViewPager.getCurrentItem());
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        mPagerAdapter.cancelLoads();
+
+        if (mPagerAdapter.getMonthViewPool() != null) {
+            // Empties the pager so every month view goes back to the pool, the pages are created
+            // again if this view is attached again.
+            mDetachedItem = mViewPager.getCurrentItem();
+            mViewPager.setAdapter(null);
+            mPagerAdapter.releaseRecycledViews();
+        }
+    }
+
+    /**
+     * Borrows the month views from the given pool, and gives them back when this view is
+     * detached. Null stops using a pool.
+     */
+    public void setMonthViewPool(MonthViewPool monthViewPool) {
+        mPagerAdapter.setMonthViewPool(monthViewPool);
+    }
+
+    /**
+     * @see SimpleMonthView#setStaticLayerEnabled(boolean)
+     */
+    public void setStaticLayersEnabled(boolean useStaticLayers) {
+        mPagerAdapter.setStaticLayersEnabled(useStaticLayers);
+    }
+
     public void setListener(DayPickerListener listener) {
         mListener = listener;
     }
 
+    /**
+     * Sets the listener notified of the picked range in {@link #SELECTION_MODE_RANGE}.
+     */
+    public void setOnRangeChangedListener(OnRangeChangedListener listener) {
+        mPagerAdapter.setOnRangeChangedListener(listener);
+    }
+
     public int getCurrentItem() {
         return mViewPager.getCurrentItem();
     }
@@ -141,6 +239,13 @@ public class DayPickerView extends FrameLayout implements SimpleMonthPagerAdapte
         void onDateSelected(int year, int month, int day);
     }
 
+    public interface OnRangeChangedListener {
+        /**
+         * Called when a day is tapped in range mode, end is null while only the start is picked.
+         */
+        void onRangeChanged(CalendarDay start, CalendarDay end);
+    }
+
     public static class DayPickerParams {
         public final int firstDayOfWeek;
 
@@ -150,12 +255,52 @@ public class DayPickerView extends FrameLayout implements SimpleMonthPagerAdapte
         public final CalendarDay minDate;
         @NonNull
         public final CalendarDay maxDate;
+        @Nullable
+        public final DateConstraint dateConstraint;
+        public final int selectionMode;
+
+        /**
+         * The selected days when the selection mode is {@link #SELECTION_MODE_MULTIPLE}, which the
+         * picker updates in place.
+         */
+        @Nullable
+        public final DateBitSet selectedDates;
+
+        /**
+         * The selected range when the selection mode is {@link #SELECTION_MODE_RANGE}.
+         */
+        @Nullable
+        public final CalendarDay rangeStart;
+        @Nullable
+        public final CalendarDay rangeEnd;
 
         public DayPickerParams(@NonNull CalendarDay minDate, @NonNull CalendarDay maxDate, @NonNull CalendarDay selectedDate, int firstDayOfWeek) {
+            this(minDate, maxDate, selectedDate, firstDayOfWeek, null);
+        }
+
+        public DayPickerParams(@NonNull CalendarDay minDate, @NonNull CalendarDay maxDate, @NonNull CalendarDay selectedDate, int firstDayOfWeek, @Nullable DateConstraint dateConstraint) {
+            this(minDate, maxDate, selectedDate, firstDayOfWeek, dateConstraint, SELECTION_MODE_SINGLE, null);
+        }
+
+        public DayPickerParams(@NonNull CalendarDay minDate, @NonNull CalendarDay maxDate, @NonNull CalendarDay selectedDate, int firstDayOfWeek, @Nullable DateConstraint dateConstraint,
+                               int selectionMode, @Nullable DateBitSet selectedDates) {
+            this(minDate, maxDate, selectedDate, firstDayOfWeek, dateConstraint, selectionMode, selectedDates, null, null);
+        }
+
+        public DayPickerParams(@NonNull CalendarDay minDate, @NonNull CalendarDay maxDate, @NonNull CalendarDay selectedDate, int firstDayOfWeek, @Nullable DateConstraint dateConstraint,
+                               int selectionMode, @Nullable DateBitSet selectedDates, @Nullable CalendarDay rangeStart, @Nullable CalendarDay rangeEnd) {
+            if (selectionMode == SELECTION_MODE_MULTIPLE && selectedDates == null) {
+                throw new IllegalArgumentException("selectedDates is required to select multiple days");
+            }
             this.selectedDate = selectedDate;
             this.firstDayOfWeek = firstDayOfWeek;
             this.minDate = minDate;
             this.maxDate = maxDate;
+            this.dateConstraint = dateConstraint;
+            this.selectionMode = selectionMode;
+            this.selectedDates = selectedDates;
+            this.rangeStart = rangeStart;
+            this.rangeEnd = rangeEnd;
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.fourmob.datetimepicker.date;
+
+/**
+ * Loads the decorations of a window of months from a {@link DayDecorator}.
+ */
+public class DecorationLoader extends MonthLoader<MonthDecoration> {
+
+    private final DayDecorator mDecorator;
+
+    public DecorationLoader(DayDecorator decorator) {
+        mDecorator = decorator;
+    }
+
+    @Override
+    protected MonthDecoration loadMonth(int year, int month) {
+        MonthDecoration decoration = new MonthDecoration(year, month);
+        mDecorator.decorate(year, month, decoration);
+        return decoration;
+    }
+}
@@ -0,0 +1,37 @@
+package com.fourmob.datetimepicker.date;
+
+/**
+ * {@link AvailabilityProvider} answering from a {@link DateConstraint} held in memory, with an
+ * optional artificial delay. Useful as a stand-in for a real data source in tests and samples.
+ */
+public class InMemoryAvailabilityProvider implements AvailabilityProvider {
+
+    private final DateConstraint mDateConstraint;
+    private volatile long mDelayMillis;
+
+    public InMemoryAvailabilityProvider(DateConstraint dateConstraint) {
+        mDateConstraint = dateConstraint;
+    }
+
+    /**
+     * Makes every query take at least the given time, to simulate a slow data source.
+     */
+    public void setDelayMillis(long delayMillis) {
+        mDelayMillis = delayMillis;
+    }
+
+    @Override
+    public int getAvailableDays(int year, int month) {
+        long delayMillis = mDelayMillis;
+        if (delayMillis > 0) {
+            try {
+                Thread.sleep(delayMillis);
+            } catch (InterruptedException e) {
+                // The month is no longer needed, the result will be dropped.
+                Thread.currentThread().interrupt();
+                return 0;
+            }
+        }
+        return mDateConstraint.getEnabledDays(year, month);
+    }
+}
@@ -0,0 +1,112 @@
+package com.fourmob.datetimepicker.date;
+
+/**
+ * Small least-recently-used cache keyed by a primitive int.
+ *
+ * Entries live in parallel arrays which are scanned linearly, which is cheaper than hashing for
+ * the few dozen entries the pickers need and means neither lookups nor insertions allocate.
+ * All methods are safe to call from any thread.
+ */
+public class IntLruCache<V> {
+    private final int[] mKeys;
+    private final Object[] mValues;
+    private final long[] mLastUsed;
+    private int mSize;
+    private long mClock;
+
+    public IntLruCache(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize <= 0");
+        }
+        mKeys = new int[maxSize];
+        mValues = new Object[maxSize];
+        mLastUsed = new long[maxSize];
+    }
+
+    @SuppressWarnings("unchecked")
+    public synchronized V get(int key) {
+        int index = indexOf(key);
+        if (index < 0) {
+            return null;
+        }
+        mLastUsed[index] = ++mClock;
+        return (V) mValues[index];
+    }
+
+    public synchronized boolean containsKey(int key) {
+        return indexOf(key) >= 0;
+    }
+
+    /**
+     * Stores the value, evicting the least recently used entry if the cache is full.
+     */
+    public synchronized void put(int key, V value) {
+        int index = indexOf(key);
+        if (index < 0) {
+            if (mSize < mKeys.length) {
+                index = mSize++;
+            } else {
+                index = 0;
+                for (int i = 1; i < mSize; i++) {
+                    if (mLastUsed[i] < mLastUsed[index]) {
+                        index = i;
+                    }
+                }
+                entryEvicted(mKeys[index], valueAt(index));
+            }
+            mKeys[index] = key;
+        }
+        mValues[index] = value;
+        mLastUsed[index] = ++mClock;
+    }
+
+    public synchronized void remove(int key) {
+        int index = indexOf(key);
+        if (index >= 0) {
+            removeAt(index);
+        }
+    }
+
+    public synchronized void clear() {
+        for (int i = 0; i < mSize; i++) {
+            mValues[i] = null;
+        }
+        mSize = 0;
+    }
+
+    public synchronized int size() {
+        return mSize;
+    }
+
+    public int maxSize() {
+        return mKeys.length;
+    }
+
+    /**
+     * Called with the lock held when an entry is evicted to make room for a new one.
+     */
+    protected void entryEvicted(int key, V value) {
+    }
+
+    private int indexOf(int key) {
+        for (int i = 0; i < mSize; i++) {
+            if (mKeys[i] == key) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @SuppressWarnings("unchecked")
+    private V valueAt(int index) {
+        return (V) mValues[index];
+    }
+
+    private void removeAt(int index) {
+        int last = --mSize;
+        mKeys[index] = mKeys[last];
+        mValues[index] = mValues[last];
+        mLastUsed[index] = mLastUsed[last];
+        mValues[last] = null;
+    }
+}
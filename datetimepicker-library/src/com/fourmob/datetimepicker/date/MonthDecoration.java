@@ -0,0 +1,86 @@
+package com.fourmob.datetimepicker.date;
+
+import android.graphics.Color;
+
+/**
+ * Decorations of the days of a single month, filled in by a {@link DayDecorator}.
+ *
+ * Everything is kept in arrays indexed by day - 1 so drawing a month only reads primitives. A
+ * decoration must not be changed once it has been handed to the picker.
+ */
+public final class MonthDecoration {
+    public static final int NO_COLOR = Color.TRANSPARENT;
+
+    public final int year;
+    public final int month;
+    public final int numDays;
+
+    private final int[] mDotColors;
+    private final int[] mBackgroundColors;
+    private final String[] mLabels;
+
+    // Bit (day - 1) is set when the day has any decoration.
+    private int mDecoratedDays;
+
+    public MonthDecoration(int year, int month) {
+        this.year = year;
+        this.month = month;
+        numDays = CalendarMath.getDaysInMonth(month, year);
+
+        mDotColors = new int[numDays];
+        mBackgroundColors = new int[numDays];
+        mLabels = new String[numDays];
+    }
+
+    /**
+     * Shows a dot of the given color under the day number, or none with {@link #NO_COLOR}.
+     */
+    public MonthDecoration setDotColor(int day, int color) {
+        mDotColors[checkDay(day) - 1] = color;
+        return onDecorated(day);
+    }
+
+    /**
+     * Tints the background of the day with the given color, or not at all with {@link #NO_COLOR}.
+     */
+    public MonthDecoration setBackgroundColor(int day, int color) {
+        mBackgroundColors[checkDay(day) - 1] = color;
+        return onDecorated(day);
+    }
+
+    /**
+     * Shows a short label, such as a price, under the day number. Labels take the place of dots.
+     */
+    public MonthDecoration setLabel(int day, String label) {
+        mLabels[checkDay(day) - 1] = label;
+        return onDecorated(day);
+    }
+
+    public int getDotColor(int day) {
+        return mDotColors[day - 1];
+    }
+
+    public int getBackgroundColor(int day) {
+        return mBackgroundColors[day - 1];
+    }
+
+    public String getLabel(int day) {
+        return mLabels[day - 1];
+    }
+
+    public boolean isDecorated(int day) {
+        return (mDecoratedDays & (1 << (day - 1))) != 0;
+    }
+
+    private int checkDay(int day) {
+        if (day < 1 || day > numDays) {
+            throw new IllegalArgumentException("Invalid day " + day);
+        }
+        return day;
+    }
+
+    private MonthDecoration onDecorated(int day) {
+        mDecoratedDays |= 1 << (day - 1);
+        return this;
+    }
+}
@@ -0,0 +1,153 @@
+package com.fourmob.datetimepicker.date;
+
+import android.graphics.Bitmap;
+
+import com.fourmob.datetimepicker.PickerTheme;
+
+/**
+ * Memory bounded least-recently-used cache of pre-rendered month pages, shared by every
+ * {@link SimpleMonthView} which has its static layer enabled.
+ *
+ * A layer holds everything on a page which doesn't depend on the hover or selection state, so a
+ * page swiped back into view can be drawn with a single bitmap blit. Layers are keyed by the
+ * {@link PickerTheme} they were drawn with, which changes with the configuration, and by the month
+ * title, and the whole cache is cleared when the locale changes. Evicted bitmaps are only dropped,
+ * never recycled, since a view may still be drawing them.
+ */
+public final class MonthLayerCache {
+    private static final int MAX_ENTRIES = 8;
+
+    private static final MonthLayerCache sInstance = new MonthLayerCache(MAX_ENTRIES, (int) (Runtime.getRuntime().maxMemory() / 32));
+
+    private final Entry[] mEntries;
+    private final long[] mLastUsed;
+    private int mMaxBytes;
+    private int mBytes;
+    private long mClock;
+
+    MonthLayerCache(int maxEntries, int maxBytes) {
+        mEntries = new Entry[maxEntries];
+        mLastUsed = new long[maxEntries];
+        mMaxBytes = maxBytes;
+    }
+
+    public static MonthLayerCache getInstance() {
+        return sInstance;
+    }
+
+    /**
+     * @return the layer rendered for the given layout, enabled days, decoration, size, today, theme and title, or null.
+     */
+    public synchronized Bitmap get(MonthLayout layout, int enabledDays, MonthDecoration decoration, int width, int height, int today, PickerTheme theme, String title) {
+        for (int i = 0; i < mEntries.length; i++) {
+            Entry entry = mEntries[i];
+            if (entry != null && entry.matches(layout, enabledDays, decoration, width, height, today, theme, title)) {
+                mLastUsed[i] = ++mClock;
+                return entry.bitmap;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Stores a layer, evicting the least recently used layers until it fits. Layers bigger than
+     * the whole cache aren't stored.
+     */
+    public synchronized void put(MonthLayout layout, int enabledDays, MonthDecoration decoration, int width, int height, int today, PickerTheme theme, String title, Bitmap bitmap) {
+        int bytes = getByteCount(bitmap);
+        if (bytes > mMaxBytes) {
+            return;
+        }
+
+        int free = -1;
+        for (int i = 0; i < mEntries.length; i++) {
+            Entry entry = mEntries[i];
+            if (entry != null && entry.matches(layout, enabledDays, decoration, width, height, today, theme, title)) {
+                removeAt(i);
+            }
+            if (mEntries[i] == null && free < 0) {
+                free = i;
+            }
+        }
+
+        while (free < 0 || mBytes + bytes > mMaxBytes) {
+            int evicted = removeLeastRecentlyUsed();
+            if (free < 0) {
+                free = evicted;
+            }
+        }
+
+        mEntries[free] = new Entry(layout, enabledDays, decoration, width, height, today, theme, title, bitmap);
+        mLastUsed[free] = ++mClock;
+        mBytes += bytes;
+    }
+
+    /**
+     * Evicts layers until at most maxBytes are used, and keeps that as the new limit.
+     */
+    public synchronized void trimToSize(int maxBytes) {
+        mMaxBytes = maxBytes;
+        while (mBytes > maxBytes) {
+            removeLeastRecentlyUsed();
+        }
+    }
+
+    public synchronized void clear() {
+        for (int i = 0; i < mEntries.length; i++) {
+            mEntries[i] = null;
+            mLastUsed[i] = 0;
+        }
+        mBytes = 0;
+    }
+
+    private int removeLeastRecentlyUsed() {
+        int leastRecentlyUsed = -1;
+        for (int i = 0; i < mEntries.length; i++) {
+            if (mEntries[i] != null && (leastRecentlyUsed < 0 || mLastUsed[i] < mLastUsed[leastRecentlyUsed])) {
+                leastRecentlyUsed = i;
+            }
+        }
+        removeAt(leastRecentlyUsed);
+        return leastRecentlyUsed;
+    }
+
+    private void removeAt(int index) {
+        mBytes -= getByteCount(mEntries[index].bitmap);
+        mEntries[index] = null;
+        mLastUsed[index] = 0;
+    }
+
+    private static int getByteCount(Bitmap bitmap) {
+        // Bitmap.getByteCount() needs API 12.
+        return bitmap.getRowBytes() * bitmap.getHeight();
+    }
+
+    private static final class Entry {
+        final MonthLayout layout;
+        final int enabledDays;
+        final MonthDecoration decoration;
+        final int width;
+        final int height;
+        final int today;
+        final PickerTheme theme;
+        final String title;
+        final Bitmap bitmap;
+
+        Entry(MonthLayout layout, int enabledDays, MonthDecoration decoration, int width, int height, int today, PickerTheme theme, String title, Bitmap bitmap) {
+            this.layout = layout;
+            this.enabledDays = enabledDays;
+            this.decoration = decoration;
+            this.width = width;
+            this.height = height;
+            this.today = today;
+            this.theme = theme;
+            this.title = title;
+            this.bitmap = bitmap;
+        }
+
+        boolean matches(MonthLayout layout, int enabledDays, MonthDecoration decoration, int width, int height, int today, PickerTheme theme, String title) {
+            return this.enabledDays == enabledDays && this.decoration == decoration && this.width == width && this.height == height && this.today == today && this.theme == theme && this.title.equals(title)
+                    && (this.layout == layout || this.layout.matches(layout.year, layout.month, layout.weekStart, layout.minEpochDay, layout.maxEpochDay));
+        }
+    }
+}
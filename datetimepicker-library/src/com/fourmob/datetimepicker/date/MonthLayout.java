@@ -0,0 +1,50 @@
+package com.fourmob.datetimepicker.date;
+
+/**
+ * Immutable description of how a month is laid out in a {@link SimpleMonthView} for a given week
+ * start and min/max dates. Instances are shared through {@link MonthLayoutCache}.
+ */
+public final class MonthLayout {
+    public final int year;
+    public final int month;
+    public final int weekStart;
+    public final int minEpochDay;
+    public final int maxEpochDay;
+
+    /**
+     * Number of empty cells before the first day of the month.
+     */
+    public final int offset;
+    public final int numDays;
+    public final int numRows;
+
+    /**
+     * Bit (day - 1) is set when the day lies within the min and max dates.
+     */
+    public final int enabledDays;
+
+    MonthLayout(int year, int month, int weekStart, int minEpochDay, int maxEpochDay) {
+        this.year = year;
+        this.month = month;
+        this.weekStart = weekStart;
+        this.minEpochDay = minEpochDay;
+        this.maxEpochDay = maxEpochDay;
+
+        offset = CalendarMath.getMonthOffset(year, month, weekStart);
+        numDays = CalendarMath.getDaysInMonth(month, year);
+        numRows = CalendarMath.getNumRows(offset, numDays);
+        enabledDays = CalendarMath.getDayMask(CalendarMath.toEpochDay(year, month, 1), numDays, minEpochDay, maxEpochDay);
+    }
+
+    boolean matches(int year, int month, int weekStart, int minEpochDay, int maxEpochDay) {
+        return this.year == year && this.month == month && this.weekStart == weekStart
+                && this.minEpochDay == minEpochDay && this.maxEpochDay == maxEpochDay;
+    }
+
+    /**
+     * @return whether the day of the month lies within the min and max dates.
+     */
+    public boolean isEnabled(int day) {
+        return day >= 1 && day <= numDays && (enabledDays & (1 << (day - 1))) != 0;
+    }
+}
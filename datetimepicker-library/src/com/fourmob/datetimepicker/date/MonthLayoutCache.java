@@ -0,0 +1,60 @@
+package com.fourmob.datetimepicker.date;
+
+/**
+ * Bounded least-recently-used cache of {@link MonthLayout}s shared by every month view and dialog.
+ *
+ * The cache is small enough that a linear scan over primitive keys is cheaper than hashing, and
+ * lookups never allocate. It is safe to use from any thread.
+ */
+public final class MonthLayoutCache {
+    private static final int DEFAULT_MAX_SIZE = 24;
+
+    private static final MonthLayoutCache sInstance = new MonthLayoutCache(DEFAULT_MAX_SIZE);
+
+    private final MonthLayout[] mLayouts;
+    private final long[] mLastUsed;
+    private long mClock;
+
+    MonthLayoutCache(int maxSize) {
+        mLayouts = new MonthLayout[maxSize];
+        mLastUsed = new long[maxSize];
+    }
+
+    public static MonthLayoutCache getInstance() {
+        return sInstance;
+    }
+
+    /**
+     * @param minEpochDay the first enabled day, or {@link Integer#MIN_VALUE} when there is none.
+     * @param maxEpochDay the last enabled day, or {@link Integer#MAX_VALUE} when there is none.
+     */
+    public synchronized MonthLayout get(int year, int month, int weekStart, int minEpochDay, int maxEpochDay) {
+        int leastRecentlyUsed = 0;
+        for (int i = 0; i < mLayouts.length; i++) {
+            MonthLayout layout = mLayouts[i];
+            if (layout == null) {
+                leastRecentlyUsed = i;
+                break;
+            }
+            if (layout.matches(year, month, weekStart, minEpochDay, maxEpochDay)) {
+                mLastUsed[i] = ++mClock;
+                return layout;
+            }
+            if (mLastUsed[i] < mLastUsed[leastRecentlyUsed]) {
+                leastRecentlyUsed = i;
+            }
+        }
+
+        MonthLayout layout = new MonthLayout(year, month, weekStart, minEpochDay, maxEpochDay);
+        mLayouts[leastRecentlyUsed] = layout;
+        mLastUsed[leastRecentlyUsed] = ++mClock;
+        return layout;
+    }
+
+    public synchronized void clear() {
+        for (int i = 0; i < mLayouts.length; i++) {
+            mLayouts[i] = null;
+            mLastUsed[i] = 0;
+        }
+    }
+}
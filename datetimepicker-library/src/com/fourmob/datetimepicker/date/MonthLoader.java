@@ -0,0 +1,230 @@
+package com.fourmob.datetimepicker.date;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import android.util.SparseArray;
+import android.util.SparseIntArray;
+
+import com.fourmob.datetimepicker.PickerExecutor;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Loads data for a window of months on a shared executor of {@link PickerExecutor}, keeping the
+ * results in a bounded cache. Subclasses load a single month in {@link #loadMonth}.
+ *
+ * The window is centered on the month being shown and covers its neighbours so they are usually
+ * ready before the user swipes to them. Loads which fall out of the window are cancelled. A load
+ * which fails is retried a few times with a growing delay, after which the month is given the
+ * data of {@link #getFallback}. Apart from loadMonth itself, everything runs on the UI thread.
+ */
+public abstract class MonthLoader<T> {
+    private static final String TAG = "MonthLoader";
+
+    public static final int DEFAULT_PREFETCH_RADIUS = 1;
+    private static final int MAX_CACHED_MONTHS = 24;
+    private static final int MAX_RETRIES = 3;
+    private static final long RETRY_DELAY_MS = 500;
+
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+
+    private final IntLruCache<T> mLoadedMonths = new IntLruCache<>(MAX_CACHED_MONTHS);
+    private final SparseArray<Future<?>> mPendingLoads = new SparseArray<>();
+    private final SparseArray<Runnable> mPendingRetries = new SparseArray<>();
+    private final SparseIntArray mFailures = new SparseIntArray();
+
+    private int mPrefetchRadius = DEFAULT_PREFETCH_RADIUS;
+    private int mGeneration;
+    private Listener mListener;
+
+    /**
+     * Called on a background thread to load a month. Implementations may check
+     * {@link Thread#isInterrupted()} to give up early when the month is no longer needed.
+     */
+    protected abstract T loadMonth(int year, int month);
+
+    /**
+     * @return the data given to a month which couldn't be loaded after retrying, so it is shown
+     * instead of staying pending. Null by default.
+     */
+    protected T getFallback(int year, int month) {
+        return null;
+    }
+
+    /**
+     * @return the executor months are loaded on, {@link PickerExecutor#getInstance()} by default.
+     */
+    protected ExecutorService getExecutor() {
+        return PickerExecutor.getInstance();
+    }
+
+    public boolean isLoaded(int monthIndex) {
+        return mLoadedMonths.containsKey(monthIndex);
+    }
+
+    /**
+     * @return the loaded data of the month, or null if it hasn't been loaded yet.
+     * @see CalendarMath#getMonthIndex(int, int)
+     */
+    public T get(int monthIndex) {
+        return mLoadedMonths.get(monthIndex);
+    }
+
+    /**
+     * Sets how many months on each side of the current month are loaded ahead of time.
+     */
+    public void setPrefetchRadius(int prefetchRadius) {
+        mPrefetchRadius = Math.max(prefetchRadius, 0);
+    }
+
+    /**
+     * Loads the given month and its neighbours, nearest first, and cancels the loads of any month
+     * outside of them. Months outside of the min and max month indexes are never loaded.
+     */
+    public void loadWindow(int monthIndex, int minMonthIndex, int maxMonthIndex) {
+        int first = Math.max(monthIndex - mPrefetchRadius, minMonthIndex);
+        int last = Math.min(monthIndex + mPrefetchRadius, maxMonthIndex);
+
+        for (int i = mPendingLoads.size() - 1; i >= 0; i--) {
+            int pendingMonthIndex = mPendingLoads.keyAt(i);
+            if (pendingMonthIndex < first || pendingMonthIndex > last) {
+                mPendingLoads.valueAt(i).cancel(true);
+                mPendingLoads.removeAt(i);
+            }
+        }
+        for (int i = mPendingRetries.size() - 1; i >= 0; i--) {
+            int retryMonthIndex = mPendingRetries.keyAt(i);
+            if (retryMonthIndex < first || retryMonthIndex > last) {
+                mHandler.removeCallbacks(mPendingRetries.valueAt(i));
+                mPendingRetries.removeAt(i);
+                mFailures.delete(retryMonthIndex);
+            }
+        }
+
+        for (int distance = 0; distance <= mPrefetchRadius; distance++) {
+            if (monthIndex - distance >= first) {
+                load(monthIndex - distance);
+            }
+            if (distance != 0 && monthIndex + distance <= last) {
+                load(monthIndex + distance);
+            }
+        }
+    }
+
+    private void load(final int monthIndex) {
+        if (mLoadedMonths.containsKey(monthIndex) || mPendingLoads.get(monthIndex) != null
+                || mPendingRetries.get(monthIndex) != null) {
+            return;
+        }
+
+        final int generation = mGeneration;
+        Future<?> future = getExecutor().submit(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    final T data = loadMonth(CalendarMath.getYearFromMonthIndex(monthIndex), CalendarMath.getMonthFromMonthIndex(monthIndex));
+                    if (Thread.currentThread().isInterrupted()) {
+                        return;
+                    }
+                    mHandler.post(new Runnable() {
+                        @Override
+                        public void run() {
+                            onLoadFinished(generation, monthIndex, data);
+                        }
+                    });
+                } catch (RuntimeException e) {
+                    Log.e(TAG, "error while loading month", e);
+                    mHandler.post(new Runnable() {
+                        @Override
+                        public void run() {
+                            onLoadFailed(generation, monthIndex);
+                        }
+                    });
+                }
+            }
+        });
+        mPendingLoads.put(monthIndex, future);
+    }
+
+    private void onLoadFinished(int generation, int monthIndex, T data) {
+        if (generation != mGeneration || mPendingLoads.get(monthIndex) == null) {
+            // The load was cancelled or invalidated while it was running.
+            return;
+        }
+        mPendingLoads.remove(monthIndex);
+        mFailures.delete(monthIndex);
+        mLoadedMonths.put(monthIndex, data);
+
+        if (mListener != null) {
+            mListener.onMonthLoaded(monthIndex);
+        }
+    }
+
+    private void onLoadFailed(int generation, final int monthIndex) {
+        if (generation != mGeneration || mPendingLoads.get(monthIndex) == null) {
+            return;
+        }
+        mPendingLoads.remove(monthIndex);
+
+        int failures = mFailures.get(monthIndex) + 1;
+        if (failures <= MAX_RETRIES) {
+            mFailures.put(monthIndex, failures);
+            Runnable retry = new Runnable() {
+                @Override
+                public void run() {
+                    mPendingRetries.remove(monthIndex);
+                    load(monthIndex);
+                }
+            };
+            mPendingRetries.put(monthIndex, retry);
+            mHandler.postDelayed(retry, RETRY_DELAY_MS << (failures - 1));
+            return;
+        }
+
+        // Give up rather than leave the month pending until it is swiped out of the window.
+        mFailures.delete(monthIndex);
+        mLoadedMonths.put(monthIndex, getFallback(CalendarMath.getYearFromMonthIndex(monthIndex), CalendarMath.getMonthFromMonthIndex(monthIndex)));
+        if (mListener != null) {
+            mListener.onMonthLoaded(monthIndex);
+        }
+    }
+
+    /**
+     * Cancels every load which hasn't finished yet, and every retry waiting to run.
+     */
+    public void cancelAll() {
+        for (int i = 0; i < mPendingLoads.size(); i++) {
+            mPendingLoads.valueAt(i).cancel(true);
+        }
+        mPendingLoads.clear();
+        for (int i = 0; i < mPendingRetries.size(); i++) {
+            mHandler.removeCallbacks(mPendingRetries.valueAt(i));
+        }
+        mPendingRetries.clear();
+        mFailures.clear();
+    }
+
+    /**
+     * Drops every loaded month, for when the underlying data has changed. Call
+     * {@link #loadWindow} afterwards to load the current months again.
+     */
+    public void invalidate() {
+        cancelAll();
+        mLoadedMonths.clear();
+        mGeneration++;
+    }
+
+    public void setListener(Listener listener) {
+        mListener = listener;
+    }
+
+    public interface Listener {
+        /**
+         * Called on the UI thread once a month has been loaded, or given its fallback data
+         * because it couldn't be.
+         */
+        void onMonthLoaded(int monthIndex);
+    }
+}
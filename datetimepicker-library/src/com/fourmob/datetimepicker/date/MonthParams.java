@@ -0,0 +1,93 @@
+package com.fourmob.datetimepicker.date;
+
+/**
+ * Mutable set of parameters used to bind a {@link SimpleMonthView} to a month.
+ *
+ * A single instance is meant to be filled in place and reused for every bind, the view copies the
+ * values it needs so binding a month does not allocate.
+ */
+public class MonthParams {
+    public static final int NO_DAY = -1;
+    public static final int NO_EPOCH_DAY = Integer.MIN_VALUE;
+    public static final int NO_MIN_EPOCH_DAY = Integer.MIN_VALUE;
+    public static final int NO_MAX_EPOCH_DAY = Integer.MAX_VALUE;
+    public static final int DEFAULT_WEEK_START = 0;
+    public static final int DEFAULT_ROW_HEIGHT = 0;
+    public static final int ALL_DAYS_ENABLED = -1;
+
+    public int year;
+    public int month;
+
+    /**
+     * The selected day of the month, or {@link #NO_DAY}.
+     */
+    public int selectedDay = NO_DAY;
+
+    /**
+     * Bit (day - 1) is set for every other selected day, used when several days can be selected.
+     */
+    public int selectedDays = 0;
+
+    /**
+     * One of the selection modes of {@link DayPickerView}.
+     */
+    public int selectionMode = DayPickerView.SELECTION_MODE_SINGLE;
+
+    /**
+     * First and last day of the selected range, or {@link #NO_EPOCH_DAY}, used when a range is
+     * selected. The end stays {@link #NO_EPOCH_DAY} while only the start has been picked.
+     */
+    public int rangeStartEpochDay = NO_EPOCH_DAY;
+    public int rangeEndEpochDay = NO_EPOCH_DAY;
+
+    /**
+     * From {@link java.util.Calendar#SUNDAY} to {@link java.util.Calendar#SATURDAY}, or
+     * {@link #DEFAULT_WEEK_START} to use the locale's first day of the week.
+     */
+    public int weekStart = DEFAULT_WEEK_START;
+
+    public int minEpochDay = NO_MIN_EPOCH_DAY;
+    public int maxEpochDay = NO_MAX_EPOCH_DAY;
+
+    /**
+     * Bit (day - 1) is set when the day of the month is enabled, on top of the min and max dates.
+     *
+     * @see DateConstraint#getEnabledDays(int, int)
+     */
+    public int enabledDays = ALL_DAYS_ENABLED;
+
+    /**
+     * Whether the enabled days are still being loaded, every day is shown disabled meanwhile.
+     *
+     * @see AvailabilityLoader
+     */
+    public boolean pending = false;
+
+    /**
+     * Dots, labels and tints of the days, or null for none.
+     */
+    public MonthDecoration decoration;
+
+    /**
+     * Epoch day of today, used to highlight today when it lies within the month.
+     */
+    public int todayEpochDay = NO_EPOCH_DAY;
+
+    /**
+     * Height of each week row in pixels, or {@link #DEFAULT_ROW_HEIGHT} to keep the view's own.
+     */
+    public int rowHeight = DEFAULT_ROW_HEIGHT;
+
+    public MonthParams set(int year, int month, int selectedDay) {
+        this.year = year;
+        this.month = month;
+        this.selectedDay = selectedDay;
+        return this;
+    }
+
+    public MonthParams setDateConstraints(int minEpochDay, int maxEpochDay) {
+        this.minEpochDay = minEpochDay;
+        this.maxEpochDay = maxEpochDay;
+        return this;
+    }
+}
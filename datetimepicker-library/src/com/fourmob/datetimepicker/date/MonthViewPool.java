@@ -0,0 +1,148 @@
+package com.fourmob.datetimepicker.date;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.MutableContextWrapper;
+import android.content.res.Configuration;
+import android.os.Build;
+
+import com.fourmob.datetimepicker.PickerTheme;
+
+/**
+ * Process wide pool of {@link SimpleMonthView}s which date pickers borrow from and give back to,
+ * so opening a picker again doesn't construct its month views again.
+ *
+ * Pooled views are created on a {@link MutableContextWrapper}: it points at the borrowing
+ * context while a view is in use and at the application context while the view is pooled, so the
+ * pool never holds on to an Activity. A view created with the same {@link PickerTheme} snapshot
+ * is handed out first, any other view is switched over to the borrower's snapshot.
+ *
+ * The pool, and {@link MonthLayerCache}, are emptied when the system asks the application to
+ * trim its memory. Only use it from the UI thread.
+ */
+public final class MonthViewPool {
+    public static final int DEFAULT_MAX_SIZE = 6;
+
+    private static MonthViewPool sInstance;
+
+    private final Context mApplicationContext;
+    private SimpleMonthView[] mViews = new SimpleMonthView[DEFAULT_MAX_SIZE];
+    private int mSize;
+
+    private MonthViewPool(Context applicationContext) {
+        mApplicationContext = applicationContext;
+    }
+
+    public static synchronized MonthViewPool getInstance(Context context) {
+        if (sInstance == null) {
+            sInstance = new MonthViewPool(context.getApplicationContext());
+            if (Build.VERSION.SDK_INT >= 14) {
+                sInstance.registerTrimCallbacks();
+            }
+        }
+        return sInstance;
+    }
+
+    private void registerTrimCallbacks() {
+        mApplicationContext.registerComponentCallbacks(new ComponentCallbacks2() {
+            @Override
+            public void onTrimMemory(int level) {
+                trimMemory(level);
+            }
+
+            @Override
+            public void onConfigurationChanged(Configuration newConfig) {
+                // Pooled views hold dimensions resolved for the old configuration.
+                clear();
+            }
+
+            @Override
+            public void onLowMemory() {
+                trimMemory(ComponentCallbacks2.TRIM_MEMORY_COMPLETE);
+            }
+        });
+    }
+
+    /**
+     * @return a pooled month view created for the theme of the context, or a new one.
+     */
+    public SimpleMonthView acquire(Context context) {
+        return acquire(context, PickerTheme.get(context));
+    }
+
+    /**
+     * @return a pooled month view drawn with the given theme, or a new one.
+     */
+    public SimpleMonthView acquire(Context context, PickerTheme theme) {
+        if (mSize == 0) {
+            return new SimpleMonthView(new MutableContextWrapper(context), theme);
+        }
+
+        int index = mSize - 1;
+        for (int i = mSize - 1; i >= 0; i--) {
+            if (mViews[i].getPickerTheme() == theme) {
+                index = i;
+                break;
+            }
+        }
+        SimpleMonthView monthView = mViews[index];
+        removeAt(index);
+        ((MutableContextWrapper) monthView.getContext()).setBaseContext(context);
+        monthView.setPickerTheme(theme);
+        return monthView;
+    }
+
+    /**
+     * Gives back a view which has been removed from its parent. Views which weren't created by
+     * {@link #acquire(Context)} are ignored, as well as any view beyond the maximum size.
+     */
+    public void release(SimpleMonthView monthView) {
+        if (!(monthView.getContext() instanceof MutableContextWrapper) || monthView.getParent() != null) {
+            return;
+        }
+        monthView.setOnDayClickListener(null);
+        if (mSize == mViews.length) {
+            return;
+        }
+
+        MutableContextWrapper context = (MutableContextWrapper) monthView.getContext();
+        mViews[mSize] = monthView;
+        mSize++;
+        context.setBaseContext(mApplicationContext);
+    }
+
+    public void setMaxSize(int maxSize) {
+        while (mSize > maxSize) {
+            removeAt(mSize - 1);
+        }
+        SimpleMonthView[] views = new SimpleMonthView[maxSize];
+        System.arraycopy(mViews, 0, views, 0, mSize);
+        mViews = views;
+    }
+
+    public int size() {
+        return mSize;
+    }
+
+    /**
+     * Drops every pooled view and the cached month layers. Called for every
+     * {@link ComponentCallbacks2#onTrimMemory} level from API 14, call it from the application's
+     * own callbacks on older releases.
+     */
+    public void trimMemory(int level) {
+        clear();
+        MonthLayerCache.getInstance().clear();
+    }
+
+    public void clear() {
+        while (mSize > 0) {
+            removeAt(mSize - 1);
+        }
+    }
+
+    private void removeAt(int index) {
+        System.arraycopy(mViews, index + 1, mViews, index, mSize - index - 1);
+        mSize--;
+        mViews[mSize] = null;
+    }
+}
@@ -3,31 +3,49 @@ package com.fourmob.datetimepicker.date;
 import android.content.Context;
 import android.support.v4.view.PagerAdapter;
 import android.util.Log;
+import android.util.SparseArray;
 import android.view.View;
 import android.view.ViewGroup;
 
+import com.fourmob.datetimepicker.PickerTheme;
 import com.fourmob.datetimepicker.Utils;
 
-import java.util.HashMap;
-import java.util.Stack;
+import java.util.ArrayList;
 
-public class SimpleMonthPagerAdapter extends PagerAdapter implements SimpleMonthView.OnDayClickListener {
+public class SimpleMonthPagerAdapter extends PagerAdapter implements SimpleMonthView.OnDayClickListener, MonthLoader.Listener {
     private static final String TAG = "SimpleMonthAdapter";
 
+    // The pager keeps at most three pages alive, so a few spare views cover any fling.
+    private static final int DEFAULT_MAX_RECYCLED_VIEWS = 3;
+
     private CalendarDay mSelectedDay;
+    private int mTodayEpochDay;
+    private int mRangeStartEpochDay = MonthParams.NO_EPOCH_DAY;
+    private int mRangeEndEpochDay = MonthParams.NO_EPOCH_DAY;
     private int mTotalMonths;
 
-    private HashMap<String, SimpleMonthView> mCurrentViews;
-    private Stack<SimpleMonthView> mRecycledViewsList;
+    private final MonthParams mMonthParams = new MonthParams();
+
+    // Live month views keyed by their month index.
+    private SparseArray<SimpleMonthView> mCurrentViews;
+    private ArrayList<SimpleMonthView> mRecycledViewsList;
+    private int mMaxRecycledViews = DEFAULT_MAX_RECYCLED_VIEWS;
+    private boolean mUseStaticLayers = false;
+    private MonthViewPool mMonthViewPool;
+    // Resolved from the pager's context when the first month view is needed.
+    private PickerTheme mPickerTheme;
+    private AvailabilityLoader mAvailabilityLoader;
+    private DecorationLoader mDecorationLoader;
 
     private DayPickerView.DayPickerParams mParams;
     private MonthPagerListener mListener;
+    private DayPickerView.OnRangeChangedListener mOnRangeChangedListener;
 
     public SimpleMonthPagerAdapter(DayPickerView.DayPickerParams params) {
         updateParams(params, false);
 
-        mCurrentViews = new HashMap<>();
-        mRecycledViewsList = new Stack<SimpleMonthView>();
+        mCurrentViews = new SparseArray<>();
+        mRecycledViewsList = new ArrayList<>(DEFAULT_MAX_RECYCLED_VIEWS);
     }
 
     private boolean isDayInMonth(CalendarDay date, int year, int month) {
@@ -45,12 +63,19 @@ public class SimpleMonthPagerAdapter extends PagerAdapter implements SimpleMonth
 
     private SimpleMonthView createOrRecycleMonthView(Context context) {
         SimpleMonthView monthView;
-        if (mRecycledViewsList.isEmpty()) {
-            monthView = new SimpleMonthView(context);
-            monthView.setOnDayClickListener(this);
+        if (!mRecycledViewsList.isEmpty()) {
+            monthView = mRecycledViewsList.remove(mRecycledViewsList.size() - 1);
         } else {
-            monthView = mRecycledViewsList.pop();
+            if (mPickerTheme == null) {
+                mPickerTheme = PickerTheme.get(context);
+            }
+            if (mMonthViewPool != null) {
+                monthView = mMonthViewPool.acquire(context, mPickerTheme);
+            } else {
+                monthView = new SimpleMonthView(context, mPickerTheme);
+            }
         }
+        monthView.setOnDayClickListener(this);
 
         return monthView;
     }
@@ -58,6 +83,9 @@ public class SimpleMonthPagerAdapter extends PagerAdapter implements SimpleMonth
     public void updateParams(DayPickerView.DayPickerParams params, boolean invalidate) {
         mParams = params;
         mSelectedDay = mParams.selectedDate;
+        mRangeStartEpochDay = mParams.rangeStart != null ? mParams.rangeStart.getEpochDay() : MonthParams.NO_EPOCH_DAY;
+        mRangeEndEpochDay = mParams.rangeEnd != null ? mParams.rangeEnd.getEpochDay() : MonthParams.NO_EPOCH_DAY;
+        mTodayEpochDay = new CalendarDay().getEpochDay();
 
         mTotalMonths = Utils.getMonthsBetweenDates(mParams.minDate.month, mParams.minDate.year, mParams.maxDate.month, mParams.maxDate.year);
 
@@ -70,22 +98,16 @@ public class SimpleMonthPagerAdapter extends PagerAdapter implements SimpleMonth
     public Object instantiateItem(ViewGroup container, int position) {
         SimpleMonthView monthView = createOrRecycleMonthView(container.getContext());
 
-        int firstMonth = mParams.minDate.month;
-        final int month = (position + firstMonth) % Utils.MONTHS_IN_YEAR;
-        final int year = (position + firstMonth) / Utils.MONTHS_IN_YEAR + mParams.minDate.year;
-
-        int selectedDay = -1;
-        if (isDayInMonth(mSelectedDay, year, month)) {
-            selectedDay = mSelectedDay.day;
-        }
+        int monthIndex = getMinMonthIndex() + position;
 
         monthView.reuse();
+        monthView.setStaticLayerEnabled(mUseStaticLayers);
 
-        updateMonthViewParams(monthView, selectedDay, month, year);
+        bindMonthView(monthView, monthIndex);
 
         container.addView(monthView);
 
-        mCurrentViews.put(createViewKey(month, year), monthView);
+        mCurrentViews.put(monthIndex, monthView);
 
         return monthView;
     }
@@ -95,33 +117,207 @@ public class SimpleMonthPagerAdapter extends PagerAdapter implements SimpleMonth
         SimpleMonthView recycledView = (SimpleMonthView) object;
         container.removeView(recycledView);
 
-        mCurrentViews.remove(createViewKey(recycledView.getMonth(), recycledView.getYear()));
-        mRecycledViewsList.push(recycledView);
+        mCurrentViews.remove(CalendarMath.getMonthIndex(recycledView.getYear(), recycledView.getMonth()));
+        if (mRecycledViewsList.size() < mMaxRecycledViews) {
+            mRecycledViewsList.add(recycledView);
+        } else if (mMonthViewPool != null) {
+            mMonthViewPool.release(recycledView);
+        }
+    }
+
+    /**
+     * Borrows month views from the given pool instead of creating them, and gives the views it no
+     * longer needs back to it. Null stops using a pool.
+     */
+    public void setMonthViewPool(MonthViewPool monthViewPool) {
+        mMonthViewPool = monthViewPool;
+    }
+
+    public MonthViewPool getMonthViewPool() {
+        return mMonthViewPool;
+    }
+
+    /**
+     * Gives the spare views back to the pool, if there is one. Live pages are given back as the
+     * pager destroys them.
+     */
+    public void releaseRecycledViews() {
+        if (mMonthViewPool == null) {
+            return;
+        }
+        for (int i = 0; i < mRecycledViewsList.size(); i++) {
+            mMonthViewPool.release(mRecycledViewsList.get(i));
+        }
+        mRecycledViewsList.clear();
+    }
+
+    private int getMinMonthIndex() {
+        return CalendarMath.getMonthIndex(mParams.minDate.year, mParams.minDate.month);
+    }
+
+    private void bindMonthView(SimpleMonthView monthView, int monthIndex) {
+        int month = CalendarMath.getMonthFromMonthIndex(monthIndex);
+        int year = CalendarMath.getYearFromMonthIndex(monthIndex);
+
+        int selectedDay = -1;
+        if (isDayInMonth(mSelectedDay, year, month)) {
+            selectedDay = mSelectedDay.day;
+        }
+
+        updateMonthViewParams(monthView, selectedDay, month, year);
     }
 
     private void updateMonthViewParams(SimpleMonthView monthView, int selectedDay, int month, int year) {
-        HashMap<String, Integer> drawingParams = new HashMap<String, Integer>();
-        drawingParams.put(SimpleMonthView.VIEW_PARAMS_SELECTED_DAY, selectedDay);
-        drawingParams.put(SimpleMonthView.VIEW_PARAMS_YEAR, year);
-        drawingParams.put(SimpleMonthView.VIEW_PARAMS_MONTH, month);
-        drawingParams.put(SimpleMonthView.VIEW_PARAMS_WEEK_START, mParams.firstDayOfWeek);
-
-        CalendarDay minDate = mParams.minDate;
-        drawingParams.put(SimpleMonthView.VIEW_PARAMS_MIN_DATE_DAY, minDate.day);
-        drawingParams.put(SimpleMonthView.VIEW_PARAMS_MIN_DATE_MONTH, minDate.month);
-        drawingParams.put(SimpleMonthView.VIEW_PARAMS_MIN_DATE_YEAR, minDate.year);
-
-        CalendarDay maxDate = mParams.maxDate;
-        drawingParams.put(SimpleMonthView.VIEW_PARAMS_MAX_DATE_DAY, maxDate.day);
-        drawingParams.put(SimpleMonthView.VIEW_PARAMS_MAX_DATE_MONTH, maxDate.month);
-        drawingParams.put(SimpleMonthView.VIEW_PARAMS_MAX_DATE_YEAR, maxDate.year);
-
-        monthView.setMonthParams(drawingParams);
+        MonthParams monthParams = mMonthParams.set(year, month, selectedDay);
+        monthParams.weekStart = mParams.firstDayOfWeek;
+        monthParams.setDateConstraints(mParams.minDate.getEpochDay(), mParams.maxDate.getEpochDay());
+        monthParams.todayEpochDay = mTodayEpochDay;
+        monthParams.enabledDays = mParams.dateConstraint != null ? mParams.dateConstraint.getEnabledDays(year, month) : MonthParams.ALL_DAYS_ENABLED;
+        monthParams.pending = false;
+        monthParams.selectionMode = mParams.selectionMode;
+        monthParams.selectedDays = 0;
+        monthParams.rangeStartEpochDay = MonthParams.NO_EPOCH_DAY;
+        monthParams.rangeEndEpochDay = MonthParams.NO_EPOCH_DAY;
+        if (mParams.selectionMode == DayPickerView.SELECTION_MODE_MULTIPLE) {
+            monthParams.selectedDay = MonthParams.NO_DAY;
+            monthParams.selectedDays = mParams.selectedDates.getMonthBits(year, month);
+        } else if (mParams.selectionMode == DayPickerView.SELECTION_MODE_RANGE) {
+            monthParams.selectedDay = MonthParams.NO_DAY;
+            monthParams.rangeStartEpochDay = mRangeStartEpochDay;
+            monthParams.rangeEndEpochDay = mRangeEndEpochDay;
+        }
+        monthParams.decoration = mDecorationLoader != null ? mDecorationLoader.get(CalendarMath.getMonthIndex(year, month)) : null;
+
+        if (mAvailabilityLoader != null) {
+            int monthIndex = CalendarMath.getMonthIndex(year, month);
+            if (mAvailabilityLoader.isLoaded(monthIndex)) {
+                monthParams.enabledDays &= mAvailabilityLoader.getAvailableDays(monthIndex);
+            } else {
+                monthParams.pending = true;
+            }
+        }
+
+        monthView.setMonthParams(monthParams);
         monthView.invalidate();
     }
 
-    private String createViewKey(int month, int year) {
-        return month + "." + year;
+    /**
+     * Sets how many detached month views are kept for reuse. Extra views are given back to the
+     * pool if there is one, or left to be collected.
+     */
+    public void setMaxRecycledViews(int maxRecycledViews) {
+        mMaxRecycledViews = maxRecycledViews;
+        while (mRecycledViewsList.size() > maxRecycledViews) {
+            SimpleMonthView monthView = mRecycledViewsList.remove(mRecycledViewsList.size() - 1);
+            if (mMonthViewPool != null) {
+                mMonthViewPool.release(monthView);
+            }
+        }
+    }
+
+    /**
+     * @see SimpleMonthView#setStaticLayerEnabled(boolean)
+     */
+    public void setStaticLayersEnabled(boolean useStaticLayers) {
+        mUseStaticLayers = useStaticLayers;
+        for (int i = 0; i < mCurrentViews.size(); i++) {
+            mCurrentViews.valueAt(i).setStaticLayerEnabled(useStaticLayers);
+        }
+    }
+
+    /**
+     * Loads the available days of the months shown from the given provider, or stops doing so
+     * when null.
+     */
+    public void setAvailabilityProvider(AvailabilityProvider provider) {
+        releaseLoader(mAvailabilityLoader);
+        mAvailabilityLoader = provider != null ? new AvailabilityLoader(provider) : null;
+        attachLoader(mAvailabilityLoader);
+    }
+
+    /**
+     * Decorates the days of the months shown with the given decorator, or stops doing so when null.
+     */
+    public void setDayDecorator(DayDecorator decorator) {
+        releaseLoader(mDecorationLoader);
+        mDecorationLoader = decorator != null ? new DecorationLoader(decorator) : null;
+        attachLoader(mDecorationLoader);
+    }
+
+    private void releaseLoader(MonthLoader<?> loader) {
+        if (loader != null) {
+            loader.cancelAll();
+            loader.setListener(null);
+        }
+    }
+
+    private void attachLoader(MonthLoader<?> loader) {
+        if (loader != null) {
+            loader.setListener(this);
+        }
+        rebindMonthViews();
+    }
+
+    private void rebindMonthViews() {
+        for (int i = 0; i < mCurrentViews.size(); i++) {
+            bindMonthView(mCurrentViews.valueAt(i), mCurrentViews.keyAt(i));
+        }
+    }
+
+    /**
+     * Drops the loaded available days, for when the provider's data has changed, and loads the
+     * window around the given position again.
+     */
+    public void invalidateAvailability(int position) {
+        invalidateLoader(mAvailabilityLoader, position);
+    }
+
+    /**
+     * Drops the loaded decorations, for when the decorator's data has changed, and loads the
+     * window around the given position again.
+     */
+    public void invalidateDecorations(int position) {
+        invalidateLoader(mDecorationLoader, position);
+    }
+
+    private void invalidateLoader(MonthLoader<?> loader, int position) {
+        if (loader != null) {
+            loader.invalidate();
+            rebindMonthViews();
+            loadMonths(position);
+        }
+    }
+
+    /**
+     * Loads the available days and decorations of the month at the given position and its
+     * neighbours, and cancels the loads of months further away.
+     */
+    public void loadMonths(int position) {
+        int minMonthIndex = getMinMonthIndex();
+        int maxMonthIndex = minMonthIndex + mTotalMonths - 1;
+        if (mAvailabilityLoader != null) {
+            mAvailabilityLoader.loadWindow(minMonthIndex + position, minMonthIndex, maxMonthIndex);
+        }
+        if (mDecorationLoader != null) {
+            mDecorationLoader.loadWindow(minMonthIndex + position, minMonthIndex, maxMonthIndex);
+        }
+    }
+
+    public void cancelLoads() {
+        if (mAvailabilityLoader != null) {
+            mAvailabilityLoader.cancelAll();
+        }
+        if (mDecorationLoader != null) {
+            mDecorationLoader.cancelAll();
+        }
+    }
+
+    @Override
+    public void onMonthLoaded(int monthIndex) {
+        SimpleMonthView monthView = mCurrentViews.get(monthIndex);
+        if (monthView != null) {
+            bindMonthView(monthView, monthIndex);
+        }
     }
 
     @Override
@@ -136,8 +332,8 @@ public class SimpleMonthPagerAdapter extends PagerAdapter implements SimpleMonth
             CalendarDay minDate = mParams.minDate;
             CalendarDay maxDate = mParams.maxDate;
 
-            if ((calendarDay.isAfter(minDate) || calendarDay.equals(minDate)) &&
-                    (calendarDay.isBefore(maxDate) || calendarDay.equals(maxDate))) {
+            if (calendarDay.compareTo(minDate) >= 0 && calendarDay.compareTo(maxDate) <= 0
+                    && (mParams.dateConstraint == null || mParams.dateConstraint.isEnabled(calendarDay))) {
                 onDayTapped(calendarDay);
             } else {
                 Log.i(TAG, "ignoring push since day is after minDate or before maxDate");
@@ -146,19 +342,83 @@ public class SimpleMonthPagerAdapter extends PagerAdapter implements SimpleMonth
     }
 
     protected void onDayTapped(CalendarDay calendarDay) {
-        setSelectedDayInternal(calendarDay);
+        if (mParams.selectionMode == DayPickerView.SELECTION_MODE_MULTIPLE) {
+            toggleSelectedDay(calendarDay);
+        } else if (mParams.selectionMode == DayPickerView.SELECTION_MODE_RANGE) {
+            selectRangeDay(calendarDay);
+        } else {
+            setSelectedDayInternal(calendarDay);
+        }
         if (mListener != null) {
             mListener.onDateSelected(calendarDay.year, calendarDay.month, calendarDay.day);
         }
     }
 
+    private void toggleSelectedDay(CalendarDay calendarDay) {
+        mSelectedDay = calendarDay;
+        mParams.selectedDates.toggle(calendarDay.getEpochDay());
+
+        // Only the month of the day changed, and only the day's own cell needs repainting.
+        SimpleMonthView monthView = mCurrentViews.get(CalendarMath.getMonthIndex(calendarDay.year, calendarDay.month));
+        if (monthView != null) {
+            monthView.setSelectedDays(mParams.selectedDates.getMonthBits(calendarDay.year, calendarDay.month));
+        }
+    }
+
+    /**
+     * Starts a new range at the day, or ends the current one there if the day isn't before its start.
+     */
+    private void selectRangeDay(CalendarDay calendarDay) {
+        int epochDay = calendarDay.getEpochDay();
+        int oldStart = mRangeStartEpochDay;
+        int oldEnd = mRangeEndEpochDay;
+
+        mSelectedDay = calendarDay;
+        if (mRangeStartEpochDay == MonthParams.NO_EPOCH_DAY || mRangeEndEpochDay != MonthParams.NO_EPOCH_DAY || epochDay < mRangeStartEpochDay) {
+            mRangeStartEpochDay = epochDay;
+            mRangeEndEpochDay = MonthParams.NO_EPOCH_DAY;
+        } else {
+            mRangeEndEpochDay = epochDay;
+        }
+
+        // Only months which overlap the old or the new range can have changed.
+        for (int i = 0; i < mCurrentViews.size(); i++) {
+            int monthIndex = mCurrentViews.keyAt(i);
+            int year = CalendarMath.getYearFromMonthIndex(monthIndex);
+            int month = CalendarMath.getMonthFromMonthIndex(monthIndex);
+            int firstEpochDay = CalendarMath.toEpochDay(year, month, 1);
+            int lastEpochDay = firstEpochDay + CalendarMath.getDaysInMonth(month, year) - 1;
+
+            if (overlaps(oldStart, oldEnd, firstEpochDay, lastEpochDay) || overlaps(mRangeStartEpochDay, mRangeEndEpochDay, firstEpochDay, lastEpochDay)) {
+                mCurrentViews.valueAt(i).setRange(mRangeStartEpochDay, mRangeEndEpochDay);
+            }
+        }
+
+        if (mOnRangeChangedListener != null) {
+            mOnRangeChangedListener.onRangeChanged(getRangeDay(mRangeStartEpochDay), getRangeDay(mRangeEndEpochDay));
+        }
+    }
+
+    private static boolean overlaps(int startEpochDay, int endEpochDay, int firstEpochDay, int lastEpochDay) {
+        if (startEpochDay == MonthParams.NO_EPOCH_DAY) {
+            return false;
+        }
+        int end = endEpochDay != MonthParams.NO_EPOCH_DAY ? endEpochDay : startEpochDay;
+        return startEpochDay <= lastEpochDay && end >= firstEpochDay;
+    }
+
+    private static CalendarDay getRangeDay(int epochDay) {
+        return epochDay != MonthParams.NO_EPOCH_DAY ? CalendarDay.fromEpochDay(epochDay) : null;
+    }
+
     private void setSelectedDayInternal(CalendarDay calendarDay) {
         mSelectedDay = calendarDay;
 
         // Invalidate all the other month views.
-        for (String key : mCurrentViews.keySet()) {
-            if (!key.equals(createViewKey(calendarDay.month, calendarDay.year))) {
-                mCurrentViews.get(key).clearSelection();
+        int selectedMonthIndex = CalendarMath.getMonthIndex(calendarDay.year, calendarDay.month);
+        for (int i = 0; i < mCurrentViews.size(); i++) {
+            if (mCurrentViews.keyAt(i) != selectedMonthIndex) {
+                mCurrentViews.valueAt(i).clearSelection();
             }
         }
     }
@@ -167,6 +427,10 @@ public class SimpleMonthPagerAdapter extends PagerAdapter implements SimpleMonth
         mListener = listener;
     }
 
+    public void setOnRangeChangedListener(DayPickerView.OnRangeChangedListener listener) {
+        mOnRangeChangedListener = listener;
+    }
+
     public interface MonthPagerListener {
         void onDateSelected(int year, int month, int day);
     }
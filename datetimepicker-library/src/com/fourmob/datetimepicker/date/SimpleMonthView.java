@@ -1,26 +1,21 @@
 package com.fourmob.datetimepicker.date;
 
 import android.content.Context;
-import android.content.res.Resources;
+import android.graphics.Bitmap;
 import android.graphics.Canvas;
 import android.graphics.Paint;
 import android.graphics.Paint.Align;
 import android.graphics.Paint.Style;
-import android.graphics.Typeface;
+import android.graphics.Rect;
 import android.support.annotation.Nullable;
-import android.text.format.DateUtils;
-import android.text.format.Time;
 import android.view.MotionEvent;
 import android.view.View;
 
-import com.fourmob.datetimepicker.R;
-import com.fourmob.datetimepicker.Utils;
+import com.fourmob.datetimepicker.PickerTheme;
 
 import java.security.InvalidParameterException;
-import java.text.DateFormatSymbols;
 import java.util.Calendar;
 import java.util.HashMap;
-import java.util.Locale;
 
 public class SimpleMonthView extends View {
 
@@ -41,6 +36,7 @@ public class SimpleMonthView extends View {
     protected static final int DEFAULT_NUM_ROWS = 6;
     protected final static int DAY_SEPARATOR_WIDTH = 1;
     protected final static int MIN_HEIGHT = 10;
+    protected final static int RANGE_ALPHA = 0x40;
 
 	private int daySelectedCircleSize;
 	private int miniDayNumberTextSize;
@@ -48,17 +44,23 @@ public class SimpleMonthView extends View {
 	private int monthHeaderSize;
 	private int monthLabelTextSize;
 
-    private final int mDayDisabledTextColor;
+    private int mDayDisabledTextColor;
     private int mPadding = 0;
 
-    private String mDayOfWeekTypeface;
-    private String mMonthTitleTypeface;
+    private PickerTheme mTheme;
 
     private Paint mMonthDayLabelPaint;
     private Paint mMonthNumPaint;
     private Paint mMonthTitlePaint;
     private Paint mSelectedCirclePaint;
     private Paint mHoveredCirclePaint;
+    private Paint mRangePaint;
+    private Paint mDecorationPaint;
+    private Paint mDecorationLabelPaint;
+
+    private int mDecorationDotRadius;
+    private int mDecorationOffset;
+    private int mDecorationLabelTextSize;
 
     private int mDayTextColor;
     private int mSelectedTextColor;
@@ -67,58 +69,107 @@ public class SimpleMonthView extends View {
 
     private boolean mHasToday = false;
     private int mSelectedDay = -1;
+
+    // Bit (day - 1) is set for every selected day, including mSelectedDay.
+    private int mSelectedDays = 0;
+    private int mSelectionMode = DayPickerView.SELECTION_MODE_SINGLE;
+
+    // Selected range when the selection mode is DayPickerView.SELECTION_MODE_RANGE.
+    private int mRangeStartEpochDay = MonthParams.NO_EPOCH_DAY;
+    private int mRangeEndEpochDay = MonthParams.NO_EPOCH_DAY;
+    private int mFirstEpochDay;
     private int mHoveredDay = -1;
     private int mToday = -1;
     private int mWeekStart = 1;
     private int mNumDays = 7;
     private int mNumCells = mNumDays;
-    private int mDayOfWeekStart = 0;
     private int mMonth;
     private int mRowHeight = DEFAULT_HEIGHT;
     private int mWidth;
     private int mYear;
 
-	private final Calendar mCalendar;
-	private final Calendar mDayLabelCalendar;
+	private final int mDefaultWeekStart;
 
     private int mNumRows = DEFAULT_NUM_ROWS;
 
-	private DateFormatSymbols mDateFormatSymbols = new DateFormatSymbols();
+    private final CalendarTextCache mTextCache = CalendarTextCache.getInstance();
+    private String mMonthTitle;
+    private String[] mWeekdayLabels;
+    private String[] mDayNumbers;
 
     private OnDayClickListener mOnDayClickListener;
-    private CalendarDay mMinDate;
-    private CalendarDay mMaxDate;
+    private int mMinEpochDay = MonthParams.NO_MIN_EPOCH_DAY;
+    private int mMaxEpochDay = MonthParams.NO_MAX_EPOCH_DAY;
+    private MonthLayout mLayout;
+
+    // Bit (day - 1) is set when the day is within the min and max dates and allowed by the constraints.
+    private int mEnabledDays;
+    private boolean mPending;
+    private MonthDecoration mDecoration;
+
+    // Cell geometry, recomputed whenever the size or row height changes. Drawing, hit testing and
+    // invalidation all read from these so they always agree.
+    private final int[] mColumnCenterX = new int[CalendarMath.DAYS_IN_WEEK];
+    private final int[] mRowBaselineY = new int[DEFAULT_NUM_ROWS];
+    private int mColumnWidth;
+    private int mDayHalfWidth;
+
+    // Bounds of each column and row, including the selection circle, so a single day can be repainted.
+    private final int[] mColumnLeft = new int[CalendarMath.DAYS_IN_WEEK];
+    private final int[] mColumnRight = new int[CalendarMath.DAYS_IN_WEEK];
+    private final int[] mRowTop = new int[DEFAULT_NUM_ROWS];
+    private final int[] mRowBottom = new int[DEFAULT_NUM_ROWS];
+    private final Rect mDirtyRect = new Rect();
+    private final Rect mLayerRect = new Rect();
+
+    private boolean mUseStaticLayer = false;
 
     public SimpleMonthView(Context context) {
-		super(context);
-		Resources resources = context.getResources();
-		mDayLabelCalendar = Calendar.getInstance();
-		mCalendar = Calendar.getInstance();
-
-		mDayOfWeekTypeface = resources.getString(R.string.day_of_week_label_typeface);
-		mMonthTitleTypeface = resources.getString(R.string.sans_serif);
-
-		mDayTextColor = resources.getColor(R.color.date_picker_text_normal);
-        mSelectedTextColor = resources.getColor(R.color.date_picker_text_selected);
-        mDayDisabledTextColor = resources.getColor(R.color.done_text_color_disabled);
-		mTodayNumberColor = Utils.getPrimaryColor(context);
-
-		miniDayNumberTextSize = resources.getDimensionPixelSize(R.dimen.day_number_size);
-		monthLabelTextSize = resources.getDimensionPixelSize(R.dimen.month_label_size);
-		monthDayLabelTextSize = resources.getDimensionPixelSize(R.dimen.month_day_label_text_size);
-		monthHeaderSize = resources.getDimensionPixelOffset(R.dimen.month_list_item_header_height);
-		daySelectedCircleSize = resources.getDimensionPixelSize(R.dimen.day_number_select_circle_radius);
-
-		mRowHeight = ((resources.getDimensionPixelOffset(R.dimen.date_picker_view_animator_height) - monthHeaderSize) / DEFAULT_NUM_ROWS);
+        this(context, PickerTheme.get(context));
+    }
 
+    /**
+     * Creates a month view drawn with an already resolved theme, without any resource lookup.
+     */
+    public SimpleMonthView(Context context, PickerTheme theme) {
+		super(context);
+		mDefaultWeekStart = Calendar.getInstance().getFirstDayOfWeek();
+		applyTheme(theme);
         initView();
 	}
 
-	private int calculateNumRows() {
-        int offset = findDayOffset();
-        int dividend = (offset + mNumCells) / mNumDays;
-        int remainder = (offset + mNumCells) % mNumDays;
-        return (dividend + (remainder > 0 ? 1 : 0));
+    /**
+     * Draws this view with another theme from now on, for a pooled view handed out to a picker
+     * with a different theme than the one it was created with.
+     */
+    public void setPickerTheme(PickerTheme theme) {
+        if (theme == mTheme) {
+            return;
+        }
+        applyTheme(theme);
+        initView();
+        computeCellGeometry();
+        requestLayout();
+        invalidate();
+    }
+
+    private void applyTheme(PickerTheme theme) {
+		mTheme = theme;
+		mDayTextColor = theme.dayTextColor;
+        mSelectedTextColor = theme.selectedDayTextColor;
+        mDayDisabledTextColor = theme.disabledTextColor;
+		mTodayNumberColor = theme.primaryColor;
+
+		miniDayNumberTextSize = theme.dayNumberTextSize;
+		monthLabelTextSize = theme.monthLabelTextSize;
+		monthDayLabelTextSize = theme.monthDayLabelTextSize;
+		monthHeaderSize = theme.monthHeaderSize;
+		daySelectedCircleSize = theme.daySelectedCircleRadius;
+		mDecorationDotRadius = theme.decorationDotRadius;
+		mDecorationOffset = theme.decorationOffset;
+		mDecorationLabelTextSize = theme.decorationLabelTextSize;
+
+		mRowHeight = (theme.dayPickerHeight - monthHeaderSize) / DEFAULT_NUM_ROWS;
 	}
 
 	private void drawMonthDayLabels(Canvas canvas) {
@@ -126,114 +177,154 @@ public class SimpleMonthView extends View {
         int dayWidthHalf = (mWidth - mPadding * 2) / (mNumDays * 2);
 
         for (int i = 0; i < mNumDays; i++) {
-            int calendarDay = (i + mWeekStart) % mNumDays;
             int x = (2 * i + 1) * dayWidthHalf + mPadding;
-            mDayLabelCalendar.set(Calendar.DAY_OF_WEEK, calendarDay);
-            canvas.drawText(mDateFormatSymbols.getShortWeekdays()[mDayLabelCalendar
-                    .get(Calendar.DAY_OF_WEEK)].toUpperCase(Locale.getDefault()).substring(0, 1), x, y, mMonthDayLabelPaint);
+            canvas.drawText(mWeekdayLabels[i], x, y, mMonthDayLabelPaint);
         }
 	}
 
 	private void drawMonthTitle(Canvas canvas) {
         int x = (mWidth + 2 * mPadding) / 2;
         int y = (monthHeaderSize - monthDayLabelTextSize) / 2 + (monthLabelTextSize / 3);
-        canvas.drawText(getMonthAndYearString(), x, y, mMonthTitlePaint);
-	}
-
-	private int findDayOffset() {
-        return (mDayOfWeekStart < mWeekStart ? (mDayOfWeekStart + mNumDays) : mDayOfWeekStart)
-                - mWeekStart;
+        canvas.drawText(mMonthTitle, x, y, mMonthTitlePaint);
 	}
 
-	private String getMonthAndYearString() {
-        int flags = DateUtils.FORMAT_SHOW_DATE | DateUtils.FORMAT_SHOW_YEAR | DateUtils.FORMAT_NO_MONTH_DAY;
-        long millis = mCalendar.getTimeInMillis();
-        return DateUtils.formatDateRange(getContext(), millis, millis, flags);
-    }
-
 	private void onDayClick(CalendarDay calendarDay) {
 		if (mOnDayClickListener != null) {
 			mOnDayClickListener.onDayClick(this, calendarDay);
         }
 	}
 
-	private boolean sameDay(int monthDay, Time time) {
-		return (mYear == time.year) && (mMonth == time.month) && (monthDay == time.monthDay);
-	}
-
 	protected void drawMonthNums(Canvas canvas) {
-		int y = (mRowHeight + miniDayNumberTextSize) / 2 - DAY_SEPARATOR_WIDTH + monthHeaderSize;
-		int paddingDay = (mWidth - 2 * mPadding) / (2 * mNumDays);
-		int dayOffset = findDayOffset();
-		int day = 1;
+        drawMonthNums(canvas, true, true);
+    }
 
-        int minEnabledDay = day;
-        int maxEnabledDay = mNumCells;
-        if (mMinDate != null && mMonth == mMinDate.month && mYear == mMinDate.year) {
-            minEnabledDay = mMinDate.day;
-        }
-        if (mMaxDate != null && mMonth == mMaxDate.month && mYear == mMaxDate.year) {
-            maxEnabledDay = mMaxDate.day;
-        }
+    /**
+     * @param drawStatic whether to draw the days which aren't hovered or selected.
+     * @param drawOverlay whether to draw the hovered and selected days, when false every day is
+     * drawn as if nothing was hovered or selected.
+     */
+	private void drawMonthNums(Canvas canvas, boolean drawStatic, boolean drawOverlay) {
+        int selectedDays = drawOverlay ? mSelectedDays : 0;
+        int rangeDays = drawOverlay ? getRangeDays(mRangeStartEpochDay, mRangeEndEpochDay) : 0;
+        int hoveredDay = drawOverlay ? mHoveredDay : -1;
+        int overlayDays = drawOverlay ? getOverlayDays() : 0;
+        MonthDecoration decoration = mDecoration;
+		int column = mLayout.offset;
+		int row = 0;
+		int day = 1;
 
         while (day <= mNumCells) {
-			int x = paddingDay * (1 + dayOffset * 2) + mPadding;
+			int x = mColumnCenterX[column];
+			int y = mRowBaselineY[row];
+
+            // Without the static days only the days which differ from the static layer are drawn.
+            if (drawStatic || (overlayDays & dayBit(day)) != 0) {
+                int textColor = mDayTextColor;
+                boolean decorated = decoration != null && decoration.isDecorated(day);
 
-            int textColor = mDayTextColor;
+                if (decorated && decoration.getBackgroundColor(day) != MonthDecoration.NO_COLOR) {
+                    mDecorationPaint.setColor(decoration.getBackgroundColor(day));
+                    canvas.drawCircle(x, y - miniDayNumberTextSize / 3, daySelectedCircleSize, mDecorationPaint);
+                }
 
-            // Check if the day is 'enabled'
-            if (day >= minEnabledDay && day <= maxEnabledDay) {
-                if (mHasToday && (mToday == day)) {
-                    textColor = mTodayNumberColor;
+                if ((rangeDays & dayBit(day)) != 0) {
+                    drawRangeBand(canvas, day, x, y - miniDayNumberTextSize / 3);
                 }
 
-                // Only show circles if this is not a disabled day.
-                if (mSelectedDay == day) {
-                    textColor = mSelectedTextColor;
-                    canvas.drawCircle(x, y - miniDayNumberTextSize / 3, daySelectedCircleSize, mSelectedCirclePaint);
+                // Check if the day is 'enabled'
+                if (isEnabledDay(day)) {
+                    if (mHasToday && (mToday == day)) {
+                        textColor = mTodayNumberColor;
+                    }
+
+                    // Only show circles if this is not a disabled day.
+                    if ((selectedDays & dayBit(day)) != 0) {
+                        textColor = mSelectedTextColor;
+                        canvas.drawCircle(x, y - miniDayNumberTextSize / 3, daySelectedCircleSize, mSelectedCirclePaint);
 
-                } else if (mHoveredDay == day) {
-                    canvas.drawCircle(x, y - miniDayNumberTextSize / 3, daySelectedCircleSize, mHoveredCirclePaint);
+                    } else if (hoveredDay == day) {
+                        canvas.drawCircle(x, y - miniDayNumberTextSize / 3, daySelectedCircleSize, mHoveredCirclePaint);
+                    }
+                } else {
+                    textColor = mDayDisabledTextColor;
                 }
-            } else {
-                textColor = mDayDisabledTextColor;
-            }
 
-            mMonthNumPaint.setColor(textColor);
-			canvas.drawText(String.format("%d", day), x, y, mMonthNumPaint);
+                mMonthNumPaint.setColor(textColor);
+                canvas.drawText(mDayNumbers[day], x, y, mMonthNumPaint);
+                if (decorated) {
+                    drawDayDecoration(canvas, decoration, day, x, y, (selectedDays & dayBit(day)) != 0 ? mSelectedTextColor : 0);
+                }
+            }
 
-			dayOffset++;
-			if (dayOffset == mNumDays) {
-				dayOffset = 0;
-				y += mRowHeight;
+			column++;
+			if (column == mNumDays) {
+				column = 0;
+				row++;
 			}
 			day++;
 		}
 	}
 
+    /**
+     * Draws the part of the range highlight behind a day, which joins the bands of its neighbours
+     * so the range looks contiguous. The band stops at the center of the range's endpoints.
+     */
+    private void drawRangeBand(Canvas canvas, int day, int x, int circleY) {
+        int epochDay = mFirstEpochDay + day - 1;
+        int left = epochDay == mRangeStartEpochDay ? x : x - mDayHalfWidth;
+        int right = epochDay == mRangeEndEpochDay ? x : x + mDayHalfWidth;
+        if (left < right) {
+            canvas.drawRect(left, circleY - daySelectedCircleSize, right, circleY + daySelectedCircleSize, mRangePaint);
+        }
+    }
+
+    /**
+     * Draws the dot or label of a day under its number.
+     *
+     * @param overrideColor the color to use instead of the decoration's own, or 0 to keep it.
+     */
+    private void drawDayDecoration(Canvas canvas, MonthDecoration decoration, int day, int x, int y, int overrideColor) {
+        String label = decoration.getLabel(day);
+        if (label != null) {
+            mDecorationLabelPaint.setColor(overrideColor != 0 ? overrideColor : mMonthNumPaint.getColor());
+            canvas.drawText(label, x, y + mDecorationOffset + mDecorationLabelTextSize / 2, mDecorationLabelPaint);
+        } else if (decoration.getDotColor(day) != MonthDecoration.NO_COLOR) {
+            mDecorationPaint.setColor(overrideColor != 0 ? overrideColor : decoration.getDotColor(day));
+            canvas.drawCircle(x, y + mDecorationOffset, mDecorationDotRadius, mDecorationPaint);
+        }
+    }
+
 	public @Nullable CalendarDay getDayFromLocation(float x, float y) {
-		int padding = mPadding;
-		if ((x < padding) || (x > mWidth - mPadding)) {
-			return null;
-		}
+		int day = getDayAtLocation(x, y);
+		return day != -1 ? new CalendarDay(mYear, mMonth, day) : null;
+	}
 
-		int yDay = (int) (y - monthHeaderSize) / mRowHeight;
-		int day = 1 + ((int) ((x - padding) * mNumDays / (mWidth - padding - mPadding)) - findDayOffset()) + yDay * mNumDays;
+    /**
+     * @return the day of the month at the given location, or -1 if there is none. Unlike
+     * {@link #getDayFromLocation} this doesn't allocate, so it is safe to call for every touch event.
+     */
+    public int getDayAtLocation(float x, float y) {
+        if (x < mPadding || x >= mWidth - mPadding || y < monthHeaderSize || mColumnWidth <= 0) {
+            return -1;
+        }
+
+        int column = Math.min((int) (x - mPadding) / mColumnWidth, mNumDays - 1);
+        int row = (int) (y - monthHeaderSize) / mRowHeight;
+        int day = 1 + row * mNumDays + column - mLayout.offset;
 
         if (day <= 0 || day > mNumCells) {
             // Since this isn't part of the month being displayed, return an invalid result.
-            return null;
+            return -1;
         }
-
-		return new CalendarDay(mYear, mMonth, day);
-	}
+        return day;
+    }
 
 	protected void initView() {
         mMonthTitlePaint = new Paint();
         mMonthTitlePaint.setFakeBoldText(true);
         mMonthTitlePaint.setAntiAlias(true);
         mMonthTitlePaint.setTextSize(monthLabelTextSize);
-        mMonthTitlePaint.setTypeface(Typeface.create(mMonthTitleTypeface, Typeface.BOLD));
+        mMonthTitlePaint.setTypeface(mTheme.sansSerifBoldTypeface);
         mMonthTitlePaint.setColor(mDayTextColor);
         mMonthTitlePaint.setTextAlign(Align.CENTER);
         mMonthTitlePaint.setStyle(Style.FILL);
@@ -256,10 +347,26 @@ public class SimpleMonthView extends View {
         mMonthDayLabelPaint.setAntiAlias(true);
         mMonthDayLabelPaint.setTextSize(monthDayLabelTextSize);
         mMonthDayLabelPaint.setColor(mDayTextColor);
-        mMonthDayLabelPaint.setTypeface(Typeface.create(mDayOfWeekTypeface, Typeface.NORMAL));
+        mMonthDayLabelPaint.setTypeface(mTheme.dayOfWeekTypeface);
         mMonthDayLabelPaint.setStyle(Style.FILL);
         mMonthDayLabelPaint.setTextAlign(Align.CENTER);
 
+        mRangePaint = new Paint();
+        mRangePaint.setAntiAlias(true);
+        mRangePaint.setColor(mTodayNumberColor);
+        mRangePaint.setAlpha(RANGE_ALPHA);
+        mRangePaint.setStyle(Style.FILL);
+
+        mDecorationPaint = new Paint();
+        mDecorationPaint.setAntiAlias(true);
+        mDecorationPaint.setStyle(Style.FILL);
+
+        mDecorationLabelPaint = new Paint();
+        mDecorationLabelPaint.setAntiAlias(true);
+        mDecorationLabelPaint.setTextSize(mDecorationLabelTextSize);
+        mDecorationLabelPaint.setStyle(Style.FILL);
+        mDecorationLabelPaint.setTextAlign(Align.CENTER);
+
         mMonthNumPaint = new Paint();
         mMonthNumPaint.setAntiAlias(true);
         mMonthNumPaint.setTextSize(miniDayNumberTextSize);
@@ -268,49 +375,216 @@ public class SimpleMonthView extends View {
 	}
 
 	protected void onDraw(Canvas canvas) {
+        // Pending months are short lived, so they aren't worth a layer.
+        Bitmap staticLayer = mUseStaticLayer && !mPending ? getStaticLayer() : null;
+        if (staticLayer != null) {
+            drawStaticLayer(canvas, staticLayer, getOverlayDays());
+            drawMonthNums(canvas, false, true);
+            return;
+        }
+
         drawMonthTitle(canvas);
 		drawMonthDayLabels(canvas);
 		drawMonthNums(canvas);
 	}
 
+    /**
+     * @return the title, labels and days of this month rendered without hover or selection,
+     * taken from the shared {@link MonthLayerCache} or rendered now, or null if the view has no size.
+     */
+    private Bitmap getStaticLayer() {
+        int width = getWidth();
+        int height = getHeight();
+        if (width <= 0 || height <= 0) {
+            return null;
+        }
+
+        MonthLayerCache cache = MonthLayerCache.getInstance();
+        Bitmap layer = cache.get(mLayout, mEnabledDays, mDecoration, width, height, mToday, mTheme, mMonthTitle);
+        if (layer == null) {
+            try {
+                layer = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+            } catch (OutOfMemoryError e) {
+                return null;
+            }
+            Canvas layerCanvas = new Canvas(layer);
+            drawMonthTitle(layerCanvas);
+            drawMonthDayLabels(layerCanvas);
+            drawMonthNums(layerCanvas, true, false);
+            cache.put(mLayout, mEnabledDays, mDecoration, width, height, mToday, mTheme, mMonthTitle, layer);
+        }
+        return layer;
+    }
+
+    /**
+     * Draws the static layer except for the cells of the given days, which the overlay then draws
+     * completely, so their numbers and decorations aren't drawn twice on top of each other.
+     */
+    private void drawStaticLayer(Canvas canvas, Bitmap layer, int excludedDays) {
+        if (excludedDays == 0) {
+            canvas.drawBitmap(layer, 0, 0, null);
+            return;
+        }
+
+        int width = layer.getWidth();
+        int top = monthHeaderSize;
+        drawLayerPart(canvas, layer, 0, 0, width, top);
+        int cell = 0;
+        for (int row = 0; row < mNumRows; row++) {
+            int bottom = top + mRowHeight;
+            int left = 0;
+            for (int column = 0; column < mNumDays; column++, cell++) {
+                int day = cell - mLayout.offset + 1;
+                if (day >= 1 && day <= mNumCells && (excludedDays & dayBit(day)) != 0) {
+                    int cellLeft = mColumnCenterX[column] - mDayHalfWidth;
+                    drawLayerPart(canvas, layer, left, top, cellLeft, bottom);
+                    left = cellLeft + 2 * mDayHalfWidth;
+                }
+            }
+            drawLayerPart(canvas, layer, left, top, width, bottom);
+            top = bottom;
+        }
+        drawLayerPart(canvas, layer, 0, top, width, layer.getHeight());
+    }
+
+    private void drawLayerPart(Canvas canvas, Bitmap layer, int left, int top, int right, int bottom) {
+        if (left < right && top < bottom) {
+            mLayerRect.set(left, top, right, bottom);
+            canvas.drawBitmap(layer, mLayerRect, mLayerRect, null);
+        }
+    }
+
+    /**
+     * @return a mask of the days drawn differently from the static layer: the days in the range,
+     * and the selected and hovered days which are enabled.
+     */
+    private int getOverlayDays() {
+        return getRangeDays(mRangeStartEpochDay, mRangeEndEpochDay) | ((mSelectedDays | dayBit(mHoveredDay)) & mEnabledDays);
+    }
+
+    /**
+     * Enables drawing the parts of the month which don't change on hover or selection from a
+     * cached bitmap, so each frame only draws the highlighted days on top. This trades memory,
+     * bounded by {@link MonthLayerCache}, for much cheaper frames while swiping between months.
+     */
+    public void setStaticLayerEnabled(boolean useStaticLayer) {
+        if (mUseStaticLayer != useStaticLayer) {
+            mUseStaticLayer = useStaticLayer;
+            invalidate();
+        }
+    }
+
 	protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
-        setMeasuredDimension(View.MeasureSpec.getSize(widthMeasureSpec), mRowHeight * mNumRows + monthHeaderSize + getResources().getDimensionPixelOffset(R.dimen.month_view_bottom_pad));
+        setMeasuredDimension(View.MeasureSpec.getSize(widthMeasureSpec), mRowHeight * mNumRows + monthHeaderSize + mTheme.monthViewBottomPadding);
     }
 
 	protected void onSizeChanged(int w, int h, int oldw, int oldh) {
 		mWidth = w;
+		computeCellGeometry();
 	}
 
-    private boolean isValidCalendarDay(CalendarDay calendarDay) {
-        return calendarDay != null && !isDisabledDay(calendarDay.day);
+    private void computeCellGeometry() {
+        mColumnWidth = (mWidth - 2 * mPadding) / mNumDays;
+
+        int paddingDay = (mWidth - 2 * mPadding) / (2 * mNumDays);
+        mDayHalfWidth = paddingDay;
+        int halfWidth = Math.max(paddingDay, daySelectedCircleSize) + 1;
+        for (int i = 0; i < mNumDays; i++) {
+            int x = paddingDay * (1 + i * 2) + mPadding;
+            mColumnCenterX[i] = x;
+            mColumnLeft[i] = x - halfWidth;
+            mColumnRight[i] = x + halfWidth;
+        }
+
+        int y = (mRowHeight + miniDayNumberTextSize) / 2 - DAY_SEPARATOR_WIDTH + monthHeaderSize;
+        for (int i = 0; i < DEFAULT_NUM_ROWS; i++) {
+            int rowTop = monthHeaderSize + i * mRowHeight;
+            int circleY = y - miniDayNumberTextSize / 3;
+            mRowBaselineY[i] = y;
+            mRowTop[i] = Math.min(rowTop, Math.min(circleY, y - miniDayNumberTextSize) - daySelectedCircleSize) - 1;
+            mRowBottom[i] = Math.max(Math.max(rowTop + mRowHeight, circleY + daySelectedCircleSize), y + mDecorationOffset + mDecorationLabelTextSize) + 1;
+            y += mRowHeight;
+        }
+    }
+
+    /**
+     * Adds the bounds of the given day to the dirty rect. Days outside the month are ignored.
+     */
+    private void addDayToDirtyRect(int day) {
+        if (day < 1 || day > mNumCells) {
+            return;
+        }
+        int cell = mLayout.offset + day - 1;
+        int column = cell % mNumDays;
+        int row = cell / mNumDays;
+        mDirtyRect.union(mColumnLeft[column], mRowTop[row], mColumnRight[column], mRowBottom[row]);
+    }
+
+    /**
+     * Repaints only the cells of the two given days, typically the previous and the new value of
+     * the hovered or selected day.
+     */
+    private void invalidateDays(int previousDay, int day) {
+        if (mLayout == null) {
+            invalidate();
+            return;
+        }
+        mDirtyRect.setEmpty();
+        addDayToDirtyRect(previousDay);
+        addDayToDirtyRect(day);
+        if (!mDirtyRect.isEmpty()) {
+            invalidate(mDirtyRect);
+        }
+    }
+
+    private boolean isEnabledDay(int day) {
+        return (mEnabledDays & (1 << (day - 1))) != 0;
     }
 
     private boolean isDisabledDay(int day) {
-        if (mMinDate != null && mMonth == mMinDate.month && mYear == mMinDate.year) {
-            if (day < mMinDate.day) {
-                return true;
-            }
+        return !isEnabledDay(day);
+    }
+
+    private static int dayBit(int day) {
+        return day >= 1 ? 1 << (day - 1) : 0;
+    }
+
+    /**
+     * @return a mask of the days of this month covered by the range, or 0 while it has no end.
+     */
+    private int getRangeDays(int startEpochDay, int endEpochDay) {
+        if (startEpochDay == MonthParams.NO_EPOCH_DAY || endEpochDay == MonthParams.NO_EPOCH_DAY) {
+            return 0;
         }
-        if (mMaxDate != null && mMonth == mMaxDate.month && mYear == mMaxDate.year) {
-            if (day > mMaxDate.day) {
-                return true;
-            }
+        return CalendarMath.getDayMask(mFirstEpochDay, mNumCells, startEpochDay, endEpochDay);
+    }
+
+    /**
+     * @return the bit of the epoch day if it lies within this month, or 0.
+     */
+    private int epochDayBit(int epochDay) {
+        if (epochDay == MonthParams.NO_EPOCH_DAY) {
+            return 0;
         }
-        return false;
+        int day = epochDay - mFirstEpochDay + 1;
+        return day >= 1 && day <= mNumCells ? dayBit(day) : 0;
     }
 
 	public boolean onTouchEvent(MotionEvent event) {
         switch (event.getAction()) {
             case MotionEvent.ACTION_UP:
-                CalendarDay selectedCalendarDay = getDayFromLocation(event.getX(), event.getY());
-                if (isValidCalendarDay(selectedCalendarDay)) {
-
-                    // Only invalidate if the value has changed.
-                    if (selectedCalendarDay.day != mSelectedDay) {
-                        onDayClick(selectedCalendarDay);
-
-                        mSelectedDay = selectedCalendarDay.day;
-                        invalidate();
+                int selectedDay = getDayAtLocation(event.getX(), event.getY());
+                if (selectedDay != -1 && !isDisabledDay(selectedDay)) {
+
+                    if (mSelectionMode != DayPickerView.SELECTION_MODE_SINGLE) {
+                        // The adapter owns the selection and hands it back through setSelectedDays.
+                        onDayClick(new CalendarDay(mYear, mMonth, selectedDay));
+                    } else if (selectedDay != mSelectedDay) {
+                        // Only invalidate if the value has changed.
+                        onDayClick(new CalendarDay(mYear, mMonth, selectedDay));
+
+                        mSelectedDay = selectedDay;
+                        setSelectedDays(dayBit(selectedDay));
                     }
 
                     return true;
@@ -319,13 +593,14 @@ public class SimpleMonthView extends View {
 
             case MotionEvent.ACTION_DOWN:
             case MotionEvent.ACTION_MOVE:
-                CalendarDay hoveredCalendarDay = getDayFromLocation(event.getX(), event.getY());
-                if (isValidCalendarDay(hoveredCalendarDay)) {
+                int hoveredDay = getDayAtLocation(event.getX(), event.getY());
+                if (hoveredDay != -1 && !isDisabledDay(hoveredDay)) {
 
                     // Only invalidate if the value has changed.
-                    if (hoveredCalendarDay.day != mHoveredDay) {
-                        mHoveredDay = hoveredCalendarDay.day;
-                        invalidate();
+                    if (hoveredDay != mHoveredDay) {
+                        int previousDay = mHoveredDay;
+                        mHoveredDay = hoveredDay;
+                        invalidateDays(previousDay, mHoveredDay);
                     }
 
                     return true;
@@ -338,8 +613,9 @@ public class SimpleMonthView extends View {
 
         // We need to remove the hover effect.
         if (mHoveredDay != -1) {
+            int previousDay = mHoveredDay;
             mHoveredDay = -1;
-            invalidate();
+            invalidateDays(previousDay, -1);
         }
 
         return true;
@@ -350,68 +626,97 @@ public class SimpleMonthView extends View {
 		requestLayout();
 	}
 
+    /**
+     * @deprecated Use {@link #setMonthParams(MonthParams)} instead, which doesn't allocate.
+     */
+	@Deprecated
 	public void setMonthParams(HashMap<String, Integer> params) {
         if (!params.containsKey(VIEW_PARAMS_MONTH) && !params.containsKey(VIEW_PARAMS_YEAR)) {
             throw new InvalidParameterException("You must specify month and year for this view");
         }
 		setTag(params);
 
+        MonthParams monthParams = new MonthParams();
+        monthParams.set(params.get(VIEW_PARAMS_YEAR), params.get(VIEW_PARAMS_MONTH), MonthParams.NO_DAY);
+        monthParams.setDateConstraints(mMinEpochDay, mMaxEpochDay);
+        monthParams.todayEpochDay = new CalendarDay().getEpochDay();
+
         if (params.containsKey(VIEW_PARAMS_MIN_DATE_DAY) && params.containsKey(VIEW_PARAMS_MIN_DATE_MONTH) && params.containsKey(VIEW_PARAMS_MIN_DATE_YEAR)) {
-            this.mMinDate = new CalendarDay(params.get(VIEW_PARAMS_MIN_DATE_YEAR), params.get(VIEW_PARAMS_MIN_DATE_MONTH), params.get(VIEW_PARAMS_MIN_DATE_DAY));
+            monthParams.minEpochDay = CalendarMath.toEpochDay(params.get(VIEW_PARAMS_MIN_DATE_YEAR), params.get(VIEW_PARAMS_MIN_DATE_MONTH), params.get(VIEW_PARAMS_MIN_DATE_DAY));
         }
 
         if (params.containsKey(VIEW_PARAMS_MAX_DATE_DAY) && params.containsKey(VIEW_PARAMS_MAX_DATE_MONTH) && params.containsKey(VIEW_PARAMS_MAX_DATE_YEAR)) {
-            this.mMaxDate = new CalendarDay(params.get(VIEW_PARAMS_MAX_DATE_YEAR), params.get(VIEW_PARAMS_MAX_DATE_MONTH), params.get(VIEW_PARAMS_MAX_DATE_DAY));
+            monthParams.maxEpochDay = CalendarMath.toEpochDay(params.get(VIEW_PARAMS_MAX_DATE_YEAR), params.get(VIEW_PARAMS_MAX_DATE_MONTH), params.get(VIEW_PARAMS_MAX_DATE_DAY));
         }
 
         if (params.containsKey(VIEW_PARAMS_HEIGHT)) {
-            mRowHeight = params.get(VIEW_PARAMS_HEIGHT);
-            if (mRowHeight < MIN_HEIGHT) {
-                mRowHeight = MIN_HEIGHT;
-            }
+            monthParams.rowHeight = params.get(VIEW_PARAMS_HEIGHT);
         }
 
-        mHoveredDay = -1;
-        mSelectedDay = -1;
         if (params.containsKey(VIEW_PARAMS_SELECTED_DAY)) {
-            mSelectedDay = params.get(VIEW_PARAMS_SELECTED_DAY);
+            monthParams.selectedDay = params.get(VIEW_PARAMS_SELECTED_DAY);
         }
 
-        mMonth = params.get(VIEW_PARAMS_MONTH);
-        mYear = params.get(VIEW_PARAMS_YEAR);
-
-        final Time today = new Time(Time.getCurrentTimezone());
-        today.setToNow();
-        mHasToday = false;
-        mToday = -1;
-
-		mCalendar.set(Calendar.MONTH, mMonth);
-		mCalendar.set(Calendar.YEAR, mYear);
-		mCalendar.set(Calendar.DAY_OF_MONTH, 1);
-		mDayOfWeekStart = mCalendar.get(Calendar.DAY_OF_WEEK);
-
         if (params.containsKey(VIEW_PARAMS_WEEK_START)) {
-            mWeekStart = params.get(VIEW_PARAMS_WEEK_START);
-        } else {
-            mWeekStart = mCalendar.getFirstDayOfWeek();
+            monthParams.weekStart = params.get(VIEW_PARAMS_WEEK_START);
         }
 
-        mNumCells = Utils.getDaysInMonth(mMonth, mYear);
-        for (int i = 0; i < mNumCells; i++) {
-            final int day = i + 1;
-            if (sameDay(day, today)) {
-                mHasToday = true;
-                mToday = day;
+        setMonthParams(monthParams);
+	}
+
+    /**
+     * Binds this view to a month. The values are copied, so the params may be reused afterwards.
+     */
+    public void setMonthParams(MonthParams params) {
+        if (params.rowHeight != MonthParams.DEFAULT_ROW_HEIGHT) {
+            int rowHeight = Math.max(params.rowHeight, MIN_HEIGHT);
+            if (rowHeight != mRowHeight) {
+                mRowHeight = rowHeight;
+                computeCellGeometry();
             }
         }
 
-        mNumRows = calculateNumRows();
-	}
+        mHoveredDay = -1;
+        mSelectedDay = params.selectedDay;
+        mSelectedDays = params.selectedDays | dayBit(params.selectedDay);
+        mSelectionMode = params.selectionMode;
+
+        mMonth = params.month;
+        mYear = params.year;
+        mWeekStart = params.weekStart != MonthParams.DEFAULT_WEEK_START ? params.weekStart : mDefaultWeekStart;
+        mMinEpochDay = params.minEpochDay;
+        mMaxEpochDay = params.maxEpochDay;
+
+        mLayout = MonthLayoutCache.getInstance().get(mYear, mMonth, mWeekStart, mMinEpochDay, mMaxEpochDay);
+        mNumCells = mLayout.numDays;
+        mNumRows = mLayout.numRows;
+        mPending = params.pending;
+        mDecoration = params.decoration;
+        mEnabledDays = mPending ? 0 : mLayout.enabledDays & params.enabledDays;
+
+        // Resolve the strings now so drawing doesn't need to format anything.
+        mMonthTitle = mTextCache.getMonthTitle(getContext(), mYear, mMonth);
+        mWeekdayLabels = mTextCache.getWeekdayLabels(mWeekStart);
+        mDayNumbers = mTextCache.getDayNumbers();
+
+        mFirstEpochDay = CalendarMath.toEpochDay(mYear, mMonth, 1);
+        mRangeStartEpochDay = params.rangeStartEpochDay;
+        mRangeEndEpochDay = params.rangeEndEpochDay;
+        mSelectedDays |= epochDayBit(mRangeStartEpochDay) | epochDayBit(mRangeEndEpochDay);
+
+        int today = params.todayEpochDay - mFirstEpochDay + 1;
+        mHasToday = params.todayEpochDay != MonthParams.NO_EPOCH_DAY && today >= 1 && today <= mNumCells;
+        mToday = mHasToday ? today : -1;
+    }
 
 	public void setOnDayClickListener(OnDayClickListener onDayClickListener) {
 		mOnDayClickListener = onDayClickListener;
 	}
 
+    public PickerTheme getPickerTheme() {
+        return mTheme;
+    }
+
     public int getMonth() {
         return mMonth;
     }
@@ -422,7 +727,67 @@ public class SimpleMonthView extends View {
 
     public void clearSelection() {
         mSelectedDay = -1;
-        invalidate();
+        setSelectedDays(0);
+    }
+
+    /**
+     * Replaces the selected days, repainting only the days whose selection changed.
+     *
+     * @param selectedDays a mask where bit (day - 1) is set when the day is selected.
+     */
+    public void setSelectedDays(int selectedDays) {
+        int changedDays = mSelectedDays ^ selectedDays;
+        mSelectedDays = selectedDays;
+        if (changedDays == 0) {
+            return;
+        }
+        if (mLayout == null) {
+            invalidate();
+            return;
+        }
+
+        invalidateDays(changedDays);
+    }
+
+    /**
+     * Replaces the selected range, repainting only the days whose part of the highlight changed.
+     *
+     * @param endEpochDay the last day of the range, or {@link MonthParams#NO_EPOCH_DAY} while
+     * only the start has been picked.
+     */
+    public void setRange(int startEpochDay, int endEpochDay) {
+        int oldStart = epochDayBit(mRangeStartEpochDay);
+        int oldEnd = epochDayBit(mRangeEndEpochDay);
+        int oldRange = getRangeDays(mRangeStartEpochDay, mRangeEndEpochDay);
+
+        mRangeStartEpochDay = startEpochDay;
+        mRangeEndEpochDay = endEpochDay;
+
+        int newStart = epochDayBit(startEpochDay);
+        int newEnd = epochDayBit(endEpochDay);
+        int newRange = getRangeDays(startEpochDay, endEpochDay);
+
+        mSelectedDays = newStart | newEnd;
+        if (mLayout == null) {
+            invalidate();
+            return;
+        }
+        int changedDays = (oldStart ^ newStart) | (oldEnd ^ newEnd) | (oldRange ^ newRange);
+        if (changedDays != 0) {
+            invalidateDays(changedDays);
+        }
+    }
+
+    /**
+     * Repaints only the cells of the days set in the mask.
+     */
+    private void invalidateDays(int days) {
+        mDirtyRect.setEmpty();
+        while (days != 0) {
+            addDayToDirtyRect(Integer.numberOfTrailingZeros(days) + 1);
+            days &= days - 1;
+        }
+        invalidate(mDirtyRect);
     }
 
     public interface OnDayClickListener {
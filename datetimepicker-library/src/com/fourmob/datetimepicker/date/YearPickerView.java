@@ -1,159 +1,334 @@
 package com.fourmob.datetimepicker.date;
 
 import android.content.Context;
-import android.content.res.Resources;
-import android.graphics.Color;
-import android.view.LayoutInflater;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Paint.Align;
+import android.graphics.Rect;
+import android.os.Bundle;
+import android.support.v4.view.ViewCompat;
+import android.support.v4.view.accessibility.AccessibilityNodeInfoCompat;
+import android.support.v4.widget.ExploreByTouchHelper;
+import android.view.MotionEvent;
+import android.view.SoundEffectConstants;
+import android.view.VelocityTracker;
 import android.view.View;
-import android.view.ViewGroup;
-import android.widget.AbsListView;
-import android.widget.AdapterView;
-import android.widget.BaseAdapter;
-import android.widget.LinearLayout;
-import android.widget.ListView;
-import android.widget.TextView;
+import android.view.ViewConfiguration;
+import android.view.ViewParent;
+import android.view.accessibility.AccessibilityEvent;
+import android.widget.Scroller;
 
-import com.fourmob.datetimepicker.R;
+import com.fourmob.datetimepicker.PickerTheme;
 
-import java.util.ArrayList;
 import java.util.List;
 
-public class YearPickerView extends LinearLayout implements AdapterView.OnItemClickListener, AbsListView.OnScrollListener {
-
-	private ListView mListView;
-	private YearAdapter mAdapter;
-
-	ArrayList<Integer> yearRange = new ArrayList<Integer>();
-	private int mSelectedYear = -1;
+/**
+ * Scrollable list of years drawn by a single view.
+ *
+ * Every row has the same height, so the year under a point, the visible years and the scroll
+ * position of a year are computed from the row index, and nothing is inflated or allocated per
+ * year. The visible years are exposed to accessibility services as virtual views.
+ */
+public class YearPickerView extends View {
+
+	private static final int NO_YEAR = -1;
+
+	private int mMinYear;
+	private int mMaxYear = -1;
+	private int mSelectedYear = NO_YEAR;
+	private int mPressedYear = NO_YEAR;
 	private YearPickerListener mListener;
 
-	private View mMoreContentIndicator;
-	private boolean mUseContentIndicator;
-
-	private int mViewSize;
+	private final int mViewSize;
+	private final int mRowHeight;
+	private final Paint mYearPaint = new Paint();
+	private final Paint mSelectedYearPaint = new Paint();
+	private final Paint mPressedPaint = new Paint();
+	private final Paint mContentIndicatorPaint = new Paint();
+
+	private final Scroller mScroller;
+	private VelocityTracker mVelocityTracker;
+	private final int mTouchSlop;
+	private final int mMinimumFlingVelocity;
+	private final int mMaximumFlingVelocity;
+	private float mDownY;
+	private float mLastMotionY;
+	private boolean mIsBeingDragged;
+
+	private final YearTouchHelper mTouchHelper;
+	private final Rect mTempRect = new Rect();
 
 	public YearPickerView(Context context) {
 		super(context);
 
-		setOrientation(VERTICAL);
+		PickerTheme theme = PickerTheme.get(context);
+		mViewSize = theme.dayPickerHeight;
+		mRowHeight = 2 * theme.yearLabelMargin + theme.selectedYearLabelTextSize;
 
-		Resources resources = context.getResources();
-		mViewSize = resources.getDimensionPixelOffset(R.dimen.date_picker_view_animator_height);
+		mYearPaint.setAntiAlias(true);
+		mYearPaint.setTextAlign(Align.CENTER);
+		mYearPaint.setTextSize(theme.yearLabelTextSize);
+		mYearPaint.setColor(theme.dayTextColor);
 
-		mListView = new ListView(context);
+		mSelectedYearPaint.setAntiAlias(true);
+		mSelectedYearPaint.setTextAlign(Align.CENTER);
+		mSelectedYearPaint.setTextSize(theme.selectedYearLabelTextSize);
+		mSelectedYearPaint.setColor(theme.primaryColor);
 
-		// Ensures that the selector on the text view is used.
-		mListView.setSelector(android.R.color.transparent);
-		mListView.setCacheColorHint(Color.TRANSPARENT);
+		mPressedPaint.setColor(theme.circleBackgroundColor);
+		mContentIndicatorPaint.setColor(theme.transparentBlackColor);
 
-        LayoutParams listLayoutParams = new LayoutParams(LayoutParams.MATCH_PARENT, 0);
-        listLayoutParams.weight = 1;
-		addView(mListView, listLayoutParams);
+		mScroller = new Scroller(context);
+		ViewConfiguration configuration = ViewConfiguration.get(context);
+		mTouchSlop = configuration.getScaledTouchSlop();
+		mMinimumFlingVelocity = configuration.getScaledMinimumFlingVelocity();
+		mMaximumFlingVelocity = configuration.getScaledMaximumFlingVelocity();
 
-		mUseContentIndicator = true;
-		mMoreContentIndicator = LayoutInflater.from(context).inflate(R.layout.year_picker_footer, this, false);
-		addView(mMoreContentIndicator);
-
-		mAdapter = new YearAdapter(yearRange);
-		mListView.setAdapter(mAdapter);
+		mTouchHelper = new YearTouchHelper(this);
+		ViewCompat.setAccessibilityDelegate(this, mTouchHelper);
+		ViewCompat.setImportantForAccessibility(this, ViewCompat.IMPORTANT_FOR_ACCESSIBILITY_YES);
+	}
 
-		mListView.setOnScrollListener(this);
-		mListView.setOnItemClickListener(this);
-		mListView.setDividerHeight(0);
+	private int getYearCount() {
+		return mMaxYear - mMinYear + 1;
 	}
 
-    private static int getYearFromTextView(TextView view) {
-        return Integer.valueOf(view.getText().toString());
-    }
+	private int getMaxScrollY() {
+		return Math.max(getYearCount() * mRowHeight - getHeight(), 0);
+	}
 
 	private boolean isAtBottom() {
-		int count = mListView.getAdapter().getCount();
-		if (count == 0) {
-			return true;
+		return getScrollY() >= getMaxScrollY();
+	}
+
+	/**
+	 * @return the year drawn at the given y coordinate of the view, or NO_YEAR.
+	 */
+	private int getYearAtLocation(float y) {
+		int row = (int) ((y + getScrollY()) / mRowHeight);
+		if (y < 0 || row >= getYearCount()) {
+			return NO_YEAR;
 		}
+		return mMinYear + row;
+	}
 
-		if (mListView.getLastVisiblePosition() == count - 1) {
-			return mListView.getChildAt(count - 1).getBottom() <= mListView.getHeight();
+	/**
+	 * Sets the bounds of a year's row, in the scrolled coordinates used for drawing.
+	 */
+	private void getRowBounds(int year, Rect rect) {
+		int top = (year - mMinYear) * mRowHeight;
+		rect.set(0, top, getWidth(), top + mRowHeight);
+	}
+
+	private void invalidateYear(int year) {
+		if (year != NO_YEAR) {
+			getRowBounds(year, mTempRect);
+			invalidate(mTempRect);
 		}
-		return false;
 	}
 
 	public int getFirstPositionOffset() {
-        final View firstChild = getChildAt(0);
-        if (firstChild == null) {
-            return 0;
-        }
-        return firstChild.getTop();
+		return -(getScrollY() % mRowHeight);
+	}
+
+	public int getFirstVisiblePosition() {
+		return getScrollY() / mRowHeight;
 	}
 
 	public void updateContent(int selectedYear, int minYear, int maxYear) {
+		// Years are computed from their position, so changing the range is free.
+		mMinYear = minYear;
+		mMaxYear = maxYear;
 		mSelectedYear = selectedYear;
-
-		// Update the year range if needed.
-		if (yearRange.size() > 0 && (yearRange.get(0) != minYear || yearRange.get(yearRange.size() - 1) != maxYear)) {
-			yearRange.clear();
-		}
-		if (yearRange.size() == 0) {
-			for (int year = minYear; year <= maxYear; year++) {
-				yearRange.add(year);
-			}
-		}
-
-		mAdapter.notifyDataSetChanged();
-
-		// Check whether the 'more content indicator should be visible at all'
-		if (isAtBottom()) {
-			mUseContentIndicator = false;
-			mMoreContentIndicator.setVisibility(GONE);
-		}
+		mTouchHelper.invalidateRoot();
+		invalidate();
 
 		postSetSelectionFromTop(selectedYear - minYear, mViewSize / 3);
 	}
 
-	public void onItemClick(AdapterView<?> parent, View view, int position, long id) {
-        TextView clickedView = (TextView) view;
-        if (clickedView != null) {
-			mAdapter.notifyDataSetChanged();
-
-			if (mListener != null) {
-				mListener.onYearSelected(getYearFromTextView(clickedView));
-			}
-        }
+	/**
+	 * Marks the year as selected, repainting only the rows of the old and the new selection.
+	 */
+	public void setSelectedYear(int year) {
+		if (year == mSelectedYear) {
+			return;
+		}
+		invalidateYear(mSelectedYear);
+		mSelectedYear = year;
+		invalidateYear(year);
 	}
 
 	public void postSetSelectionFromTop(final int position, final int y) {
 		post(new Runnable() {
 			public void run() {
-				mListView.setSelectionFromTop(position, y);
-				requestLayout();
+				setSelectionFromTop(position, y);
 			}
 		});
 	}
 
-    public int getFirstVisiblePosition() {
-        if (mListView == null) {
-            return 0;
-        }
-        return mListView.getFirstVisiblePosition();
-    }
+	/**
+	 * Scrolls so the year at the given position is drawn y pixels below the top of the view.
+	 */
+	public void setSelectionFromTop(int position, int y) {
+		mScroller.abortAnimation();
+		scrollToClamped(position * mRowHeight - y);
+	}
+
+	private void scrollToClamped(int y) {
+		scrollTo(0, Math.max(0, Math.min(y, getMaxScrollY())));
+	}
+
+	private void onYearClick(int year) {
+		setSelectedYear(year);
+		playSoundEffect(SoundEffectConstants.CLICK);
+		if (mListener != null) {
+			mListener.onYearSelected(year);
+		}
+		mTouchHelper.sendEventForVirtualView(year, AccessibilityEvent.TYPE_VIEW_CLICKED);
+	}
+
+	private void setPressedYear(int year) {
+		if (year != mPressedYear) {
+			invalidateYear(mPressedYear);
+			mPressedYear = year;
+			invalidateYear(year);
+		}
+	}
+
+	@Override
+	protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+		setMeasuredDimension(MeasureSpec.getSize(widthMeasureSpec), resolveSize(mViewSize, heightMeasureSpec));
+	}
 
 	@Override
-	public void onScrollStateChanged(AbsListView view, int scrollState) {
+	protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+		super.onSizeChanged(w, h, oldw, oldh);
+		scrollToClamped(getScrollY());
 	}
 
 	@Override
-	public void onScroll(AbsListView view, int firstVisibleItem, int visibleItemCount, int totalItemCount) {
-		if (!mUseContentIndicator) {
-			// Don't do anything since the indicator is never visible.
+	protected void onScrollChanged(int l, int t, int oldl, int oldt) {
+		super.onScrollChanged(l, t, oldl, oldt);
+		// The visible virtual views have moved.
+		mTouchHelper.invalidateRoot();
+	}
+
+	@Override
+	protected void onDraw(Canvas canvas) {
+		int count = getYearCount();
+		if (count <= 0) {
 			return;
 		}
 
-		final int lastItem = firstVisibleItem + visibleItemCount;
-		if (lastItem == totalItemCount && isAtBottom()) {
-			mMoreContentIndicator.setVisibility(GONE);
-		} else {
-			mMoreContentIndicator.setVisibility(VISIBLE);
+		// The canvas is already translated by the scroll, so rows are drawn at their full offset.
+		int scrollY = getScrollY();
+		int width = getWidth();
+		int x = width / 2;
+		int firstRow = scrollY / mRowHeight;
+		int lastRow = Math.min((scrollY + getHeight()) / mRowHeight, count - 1);
+		CalendarTextCache textCache = CalendarTextCache.getInstance();
+
+		for (int row = firstRow; row <= lastRow; row++) {
+			int year = mMinYear + row;
+			int top = row * mRowHeight;
+			if (year == mPressedYear) {
+				canvas.drawRect(0, top, width, top + mRowHeight, mPressedPaint);
+			}
+			Paint paint = year == mSelectedYear ? mSelectedYearPaint : mYearPaint;
+			float y = top + (mRowHeight - paint.ascent() - paint.descent()) / 2;
+			canvas.drawText(textCache.getYearLabel(year), x, y, paint);
+		}
+
+		// Shows there are more years below.
+		if (!isAtBottom()) {
+			int bottom = scrollY + getHeight();
+			canvas.drawRect(0, bottom - 1, width, bottom, mContentIndicatorPaint);
+		}
+	}
+
+	@Override
+	public boolean onTouchEvent(MotionEvent event) {
+		if (mVelocityTracker == null) {
+			mVelocityTracker = VelocityTracker.obtain();
+		}
+		mVelocityTracker.addMovement(event);
+
+		float y = event.getY();
+		switch (event.getAction() & MotionEvent.ACTION_MASK) {
+			case MotionEvent.ACTION_DOWN:
+				// Touching a fling stops it without picking a year.
+				mIsBeingDragged = !mScroller.isFinished();
+				mScroller.abortAnimation();
+				mDownY = y;
+				mLastMotionY = y;
+				if (!mIsBeingDragged) {
+					setPressedYear(getYearAtLocation(y));
+				}
+				break;
+			case MotionEvent.ACTION_MOVE:
+				if (!mIsBeingDragged && Math.abs(y - mDownY) > mTouchSlop) {
+					mIsBeingDragged = true;
+					mLastMotionY = y;
+					setPressedYear(NO_YEAR);
+					ViewParent parent = getParent();
+					if (parent != null) {
+						parent.requestDisallowInterceptTouchEvent(true);
+					}
+				}
+				if (mIsBeingDragged) {
+					int deltaY = (int) (mLastMotionY - y);
+					if (deltaY != 0) {
+						scrollToClamped(getScrollY() + deltaY);
+						mLastMotionY -= deltaY;
+					}
+				}
+				break;
+			case MotionEvent.ACTION_UP:
+				if (mIsBeingDragged) {
+					mVelocityTracker.computeCurrentVelocity(1000, mMaximumFlingVelocity);
+					int velocity = (int) mVelocityTracker.getYVelocity();
+					if (Math.abs(velocity) > mMinimumFlingVelocity) {
+						mScroller.fling(0, getScrollY(), 0, -velocity, 0, 0, 0, getMaxScrollY());
+						ViewCompat.postInvalidateOnAnimation(this);
+					}
+				} else if (mPressedYear != NO_YEAR) {
+					int year = mPressedYear;
+					setPressedYear(NO_YEAR);
+					onYearClick(year);
+				}
+				endTouch();
+				break;
+			case MotionEvent.ACTION_CANCEL:
+				setPressedYear(NO_YEAR);
+				endTouch();
+				break;
+		}
+		return true;
+	}
+
+	private void endTouch() {
+		mIsBeingDragged = false;
+		if (mVelocityTracker != null) {
+			mVelocityTracker.recycle();
+			mVelocityTracker = null;
+		}
+	}
+
+	@Override
+	public void computeScroll() {
+		if (mScroller.computeScrollOffset()) {
+			scrollTo(0, mScroller.getCurrY());
+			ViewCompat.postInvalidateOnAnimation(this);
+		}
+	}
+
+	@Override
+	public boolean dispatchHoverEvent(MotionEvent event) {
+		// First right-of-refusal goes to the touch exploration helper.
+		if (mTouchHelper.dispatchHoverEvent(event)) {
+			return true;
 		}
+		return super.dispatchHoverEvent(event);
 	}
 
 	public void setListener(YearPickerListener listener) {
@@ -164,60 +339,54 @@ public class YearPickerView extends LinearLayout implements AdapterView.OnItemCl
 		void onYearSelected(int year);
 	}
 
-	private class YearAdapter extends BaseAdapter {
-		private static final int DEFAULT_ITEM_TYPE = 0;
-		private static final int SELECTED_ITEM_TYPE = 1;
-		private List<Integer> years;
+	/**
+	 * Exposes each visible year as a virtual view, using the year as its id.
+	 */
+	private class YearTouchHelper extends ExploreByTouchHelper {
 
-		public YearAdapter(List<Integer> years) {
-			this.years = years;
+		public YearTouchHelper(View host) {
+			super(host);
 		}
 
 		@Override
-		public int getCount() {
-			return years.size();
+		protected int getVirtualViewAt(float x, float y) {
+			int year = getYearAtLocation(y);
+			return year != NO_YEAR ? year : INVALID_ID;
 		}
 
 		@Override
-		public Integer getItem(int position) {
-			return years.get(position);
-		}
-
-		@Override
-		public long getItemId(int position) {
-			return 0;
+		protected void getVisibleVirtualViews(List<Integer> virtualViewIds) {
+			int count = getYearCount();
+			int scrollY = getScrollY();
+			int lastRow = Math.min((scrollY + getHeight()) / mRowHeight, count - 1);
+			for (int row = scrollY / mRowHeight; row <= lastRow; row++) {
+				virtualViewIds.add(mMinYear + row);
+			}
 		}
 
 		@Override
-		public int getItemViewType(int position) {
-			if (getItem(position) == mSelectedYear) {
-				return SELECTED_ITEM_TYPE;
-			}
-			return DEFAULT_ITEM_TYPE;
+		protected void onPopulateEventForVirtualView(int virtualViewId, AccessibilityEvent event) {
+			event.setContentDescription(CalendarTextCache.getInstance().getYearLabel(virtualViewId));
 		}
 
 		@Override
-		public int getViewTypeCount() {
-			return 2;
+		protected void onPopulateNodeForVirtualView(int virtualViewId, AccessibilityNodeInfoCompat node) {
+			getRowBounds(virtualViewId, mTempRect);
+			mTempRect.offset(0, -getScrollY());
+
+			node.setContentDescription(CalendarTextCache.getInstance().getYearLabel(virtualViewId));
+			node.setBoundsInParent(mTempRect);
+			node.addAction(AccessibilityNodeInfoCompat.ACTION_CLICK);
+			node.setSelected(virtualViewId == mSelectedYear);
 		}
 
 		@Override
-        public View getView(int position, View convertView, ViewGroup parent) {
-			if (convertView == null) {
-				int layoutId;
-				if (getItemViewType(position) == SELECTED_ITEM_TYPE) {
-					layoutId = R.layout.year_label_text_view_selected;
-				} else {
-					layoutId = R.layout.year_label_text_view;
-				}
-				convertView = LayoutInflater.from(parent.getContext()).inflate(layoutId, parent, false);
+		protected boolean onPerformActionForVirtualView(int virtualViewId, int action, Bundle arguments) {
+			if (action == AccessibilityNodeInfoCompat.ACTION_CLICK) {
+				onYearClick(virtualViewId);
+				return true;
 			}
-			Integer year = getItem(position);
-
-			TextView yearLabel = (TextView) convertView;
-			yearLabel.setText(String.format("%d", year));
-
-            return convertView;
-        }
+			return false;
+		}
 	}
-}
\ No newline at end of file
+}
@@ -16,18 +16,13 @@ package com.sleepbot.datetimepicker.time;
  */
 
 import android.content.Context;
-import android.content.res.Resources;
 import android.graphics.Canvas;
 import android.graphics.Paint;
-import android.graphics.Typeface;
 import android.graphics.Paint.Align;
 import android.util.Log;
 import android.view.View;
 
-import com.fourmob.datetimepicker.R;
-import com.fourmob.datetimepicker.Utils;
-
-import java.text.DateFormatSymbols;
+import com.fourmob.datetimepicker.PickerTheme;
 
 /**
  * Draw the two smaller AM and PM circles next to where the larger circle will be.
@@ -45,8 +40,7 @@ public class AmPmCirclesView extends View {
     private int mAmPmTextColorNormal;
     private int mAmPmTextColorSelected;
     private int mCircleColorSelected;
-    private float mCircleRadiusMultiplier;
-    private float mAmPmCircleRadiusMultiplier;
+    private RadialGeometry mGeometry;
     private String mAmText;
     private String mPmText;
     private boolean mIsInitialized;
@@ -54,11 +48,6 @@ public class AmPmCirclesView extends View {
     private static final int AM = TimePickerDialog.AM;
     private static final int PM = TimePickerDialog.PM;
 
-    private boolean mDrawValuesReady;
-    private int mAmPmCircleRadius;
-    private int mAmXCenter;
-    private int mPmXCenter;
-    private int mAmPmYCenter;
     private int mAmOrPm;
     private int mAmOrPmPressed;
 
@@ -67,28 +56,22 @@ public class AmPmCirclesView extends View {
         mIsInitialized = false;
     }
 
-    public void initialize(Context context, int amOrPm) {
+    public void initialize(PickerTheme theme, RadialGeometry geometry, int amOrPm) {
         if (mIsInitialized) {
             Log.e(TAG, "AmPmCirclesView may only be initialized once.");
             return;
         }
 
-        Resources res = context.getResources();
-        mAmPmTextColorNormal = res.getColor(R.color.ampm_text_color_normal);
-        mAmPmTextColorSelected = res.getColor(R.color.ampm_text_color_selected);
-        mCircleColorNormal = res.getColor(R.color.circle_background);
-        mCircleColorSelected = Utils.getPrimaryColor(context);
-        String typefaceFamily = res.getString(R.string.sans_serif);
-        Typeface tf = Typeface.create(typefaceFamily, Typeface.NORMAL);
-        mPaint.setTypeface(tf);
+        mAmPmTextColorNormal = theme.amPmTextColor;
+        mAmPmTextColorSelected = theme.selectedAmPmTextColor;
+        mCircleColorNormal = theme.circleBackgroundColor;
+        mCircleColorSelected = theme.primaryColor;
+        mPaint.setTypeface(theme.sansSerifTypeface);
         mPaint.setAntiAlias(true);
         mPaint.setTextAlign(Align.CENTER);
 
-        mCircleRadiusMultiplier =
-                Float.parseFloat(res.getString(R.string.circle_radius_multiplier));
-        mAmPmCircleRadiusMultiplier =
-                Float.parseFloat(res.getString(R.string.ampm_circle_radius_multiplier));
-        String[] amPmTexts = new DateFormatSymbols().getAmPmStrings();
+        mGeometry = geometry;
+        String[] amPmTexts = TimeTextCache.getInstance().getAmPmStrings();
         mAmText = amPmTexts[0];
         mPmText = amPmTexts[1];
 
@@ -98,6 +81,15 @@ public class AmPmCirclesView extends View {
         mIsInitialized = true;
     }
 
+    /**
+     * Called by the layout once the geometry has been updated for a new size.
+     */
+    public void onGeometryChanged() {
+        int textSize = mGeometry.amPmCircleRadius * 3 / 4;
+        mPaint.setTextSize(textSize);
+        invalidate();
+    }
+
     public void setAmOrPm(int amOrPm) {
         mAmOrPm = amOrPm;
     }
@@ -110,21 +102,22 @@ public class AmPmCirclesView extends View {
      * Calculate whether the coordinates are touching the AM or PM circle.
      */
     public int getIsTouchingAmOrPm(float xCoord, float yCoord) {
-        if (!mDrawValuesReady) {
+        if (!mIsInitialized || !mGeometry.isReady()) {
             return -1;
         }
+        RadialGeometry geometry = mGeometry;
 
-        int squaredYDistance = (int) ((yCoord - mAmPmYCenter) * (yCoord - mAmPmYCenter));
+        int squaredYDistance = (int) ((yCoord - geometry.amPmYCenter) * (yCoord - geometry.amPmYCenter));
 
-        int distanceToAmCenter =
-                (int) Math.sqrt((xCoord - mAmXCenter) * (xCoord - mAmXCenter) + squaredYDistance);
-        if (distanceToAmCenter <= mAmPmCircleRadius) {
+        int distanceToAmCenter = (int) Math.sqrt(
+                (xCoord - geometry.amXCenter) * (xCoord - geometry.amXCenter) + squaredYDistance);
+        if (distanceToAmCenter <= geometry.amPmCircleRadius) {
             return AM;
         }
 
-        int distanceToPmCenter =
-                (int) Math.sqrt((xCoord - mPmXCenter) * (xCoord - mPmXCenter) + squaredYDistance);
-        if (distanceToPmCenter <= mAmPmCircleRadius) {
+        int distanceToPmCenter = (int) Math.sqrt(
+                (xCoord - geometry.pmXCenter) * (xCoord - geometry.pmXCenter) + squaredYDistance);
+        if (distanceToPmCenter <= geometry.amPmCircleRadius) {
             return PM;
         }
 
@@ -135,28 +128,10 @@ public class AmPmCirclesView extends View {
     @Override
     public void onDraw(Canvas canvas) {
         int viewWidth = getWidth();
-        if (viewWidth == 0 || !mIsInitialized) {
+        if (viewWidth == 0 || !mIsInitialized || !mGeometry.isReady()) {
             return;
         }
-
-        if (!mDrawValuesReady) {
-            int layoutXCenter = getWidth() / 2;
-            int layoutYCenter = getHeight() / 2;
-            int circleRadius =
-                    (int) (Math.min(layoutXCenter, layoutYCenter) * mCircleRadiusMultiplier);
-            mAmPmCircleRadius = (int) (circleRadius * mAmPmCircleRadiusMultiplier);
-            int textSize = mAmPmCircleRadius * 3 / 4;
-            mPaint.setTextSize(textSize);
-
-            // Line up the vertical center of the AM/PM circles with the bottom of the main circle.
-            mAmPmYCenter = layoutYCenter - mAmPmCircleRadius / 2 + circleRadius;
-            // Line up the horizontal edges of the AM/PM circles with the horizontal edges
-            // of the main circle.
-            mAmXCenter = layoutXCenter - circleRadius + mAmPmCircleRadius;
-            mPmXCenter = layoutXCenter + circleRadius - mAmPmCircleRadius;
-
-            mDrawValuesReady = true;
-        }
+        RadialGeometry geometry = mGeometry;
 
         // We'll need to draw either a lighter blue (for selection), a darker blue (for touching)
         // or white (for not selected).
@@ -182,26 +157,26 @@ public class AmPmCirclesView extends View {
         // Draw the two circles.
         mPaint.setColor(amColor);
         mPaint.setAlpha(amAlpha);
-        canvas.drawCircle(mAmXCenter, mAmPmYCenter, mAmPmCircleRadius, mPaint);
+        canvas.drawCircle(geometry.amXCenter, geometry.amPmYCenter, geometry.amPmCircleRadius, mPaint);
         mPaint.setColor(pmColor);
         mPaint.setAlpha(pmAlpha);
-        canvas.drawCircle(mPmXCenter, mAmPmYCenter, mAmPmCircleRadius, mPaint);
+        canvas.drawCircle(geometry.pmXCenter, geometry.amPmYCenter, geometry.amPmCircleRadius, mPaint);
 
         // Draw the AM/PM texts on top.
-        int textYCenter = mAmPmYCenter - (int) (mPaint.descent() + mPaint.ascent()) / 2;
+        int textYCenter = geometry.amPmYCenter - (int) (mPaint.descent() + mPaint.ascent()) / 2;
 
         if (mAmOrPm == AM || mAmOrPmPressed == AM) {
             mPaint.setColor(mAmPmTextColorSelected);
         } else {
             mPaint.setColor(mAmPmTextColorNormal);
         }
-        canvas.drawText(mAmText, mAmXCenter, textYCenter, mPaint);
+        canvas.drawText(mAmText, geometry.amXCenter, textYCenter, mPaint);
 
         if (mAmOrPm == PM || mAmOrPmPressed == PM) {
             mPaint.setColor(mAmPmTextColorSelected);
         } else {
             mPaint.setColor(mAmPmTextColorNormal);
         }
-        canvas.drawText(mPmText, mPmXCenter, textYCenter, mPaint);
+        canvas.drawText(mPmText, geometry.pmXCenter, textYCenter, mPaint);
     }
 }
\ No newline at end of file
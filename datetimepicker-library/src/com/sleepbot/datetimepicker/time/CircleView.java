@@ -16,96 +16,74 @@ package com.sleepbot.datetimepicker.time;
  */
 
 import android.content.Context;
-import android.content.res.Resources;
 import android.graphics.Canvas;
 import android.graphics.Paint;
 import android.util.Log;
 import android.view.View;
 
-import com.fourmob.datetimepicker.R;
-import com.fourmob.datetimepicker.Utils;
+import com.fourmob.datetimepicker.PickerTheme;
 
 /**
  * Draws a simple white circle on which the numbers will be drawn.
+ *
+ * @deprecated No longer used by {@link RadialPickerLayout}, which draws the dial with
+ * {@link RadialDialView}. Kept for apps which use it directly.
  */
+@Deprecated
 public class CircleView extends View {
     private static final String TAG = "CircleView";
 
     private final Paint mPaint = new Paint();
-    private boolean mIs24HourMode;
     private int mCircleColor;
     private int mDotColor;
-    private float mCircleRadiusMultiplier;
-    private float mAmPmCircleRadiusMultiplier;
+    private RadialGeometry mGeometry;
     private boolean mIsInitialized;
 
-    private boolean mDrawValuesReady;
-    private int mXCenter;
-    private int mYCenter;
-    private int mCircleRadius;
-
     public CircleView(Context context) {
         super(context);
 
-        Resources res = context.getResources();
-        mCircleColor = res.getColor(R.color.circle_background);
-        mDotColor = Utils.getPrimaryColor(context);
         mPaint.setAntiAlias(true);
 
         mIsInitialized = false;
     }
 
-    public void initialize(Context context, boolean is24HourMode) {
+    /**
+     * @param geometry The geometry of the picker, which decides whether the circle is moved up to
+     *                 make room for the AM/PM circles.
+     */
+    public void initialize(PickerTheme theme, RadialGeometry geometry) {
         if (mIsInitialized) {
             Log.e(TAG, "CircleView may only be initialized once.");
             return;
         }
 
-        Resources res = context.getResources();
-        mIs24HourMode = is24HourMode;
-        if (is24HourMode) {
-            mCircleRadiusMultiplier = Float.parseFloat(
-                    res.getString(R.string.circle_radius_multiplier_24HourMode));
-        } else {
-            mCircleRadiusMultiplier = Float.parseFloat(
-                    res.getString(R.string.circle_radius_multiplier));
-            mAmPmCircleRadiusMultiplier =
-                    Float.parseFloat(res.getString(R.string.ampm_circle_radius_multiplier));
-        }
+        mCircleColor = theme.circleBackgroundColor;
+        mDotColor = theme.primaryColor;
+        mGeometry = geometry;
 
         mIsInitialized = true;
     }
 
+    /**
+     * Called by the layout once the geometry has been updated for a new size.
+     */
+    public void onGeometryChanged() {
+        invalidate();
+    }
 
     @Override
     public void onDraw(Canvas canvas) {
         int viewWidth = getWidth();
-        if (viewWidth == 0 || !mIsInitialized) {
+        if (viewWidth == 0 || !mIsInitialized || !mGeometry.isReady()) {
             return;
         }
 
-        if (!mDrawValuesReady) {
-            mXCenter = getWidth() / 2;
-            mYCenter = getHeight() / 2;
-            mCircleRadius = (int) (Math.min(mXCenter, mYCenter) * mCircleRadiusMultiplier);
-
-            if (!mIs24HourMode) {
-                // We'll need to draw the AM/PM circles, so the main circle will need to have
-                // a slightly higher center. To keep the entire view centered vertically, we'll
-                // have to push it up by half the radius of the AM/PM circles.
-                int amPmCircleRadius = (int) (mCircleRadius * mAmPmCircleRadiusMultiplier);
-                mYCenter -= amPmCircleRadius / 2;
-            }
-
-            mDrawValuesReady = true;
-        }
-
         // Draw the white circle.
         mPaint.setColor(mCircleColor);
-        canvas.drawCircle(mXCenter, mYCenter, mCircleRadius, mPaint);
+        canvas.drawCircle(mGeometry.xCenter, mGeometry.yCenter, mGeometry.circleRadius, mPaint);
 
         // Draw a small black circle in the center.
         mPaint.setColor(mDotColor);
-        canvas.drawCircle(mXCenter, mYCenter, 8, mPaint);
+        canvas.drawCircle(mGeometry.xCenter, mGeometry.yCenter, 8, mPaint);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,591 @@
+package com.sleepbot.datetimepicker.time;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Matrix;
+import android.graphics.Paint;
+import android.graphics.Paint.Align;
+import android.graphics.RadialGradient;
+import android.graphics.Shader;
+import android.graphics.Typeface;
+import android.util.Log;
+import android.view.View;
+
+import com.fourmob.datetimepicker.PickerTheme;
+import com.nineoldandroids.animation.Keyframe;
+import com.nineoldandroids.animation.ObjectAnimator;
+import com.nineoldandroids.animation.PropertyValuesHolder;
+
+/**
+ * Draws the white circle and, on top of it, the hours and the minutes dials: each a circle of
+ * numbers with a blue selection circle over the selected number and a blue line from the center
+ * of the main circle to the edge of the selection. Only one dial is normally showing, the other
+ * one is faded out, and both are animated in and out when switching between them.
+ *
+ * Each dial keeps a single selection which both its selector and its numbers are drawn from.
+ * The numbers under the selection circle are drawn white inside of it with a radial gradient
+ * shader moved to the selection, rather than by clipping, so they stay hardware accelerated.
+ */
+public class RadialDialView extends View {
+    private static final String TAG = "RadialDialView";
+
+    private static final int DEGREES_IN_CIRCLE = 360;
+    private static final int DEGREE_POSITION_TICK = DEGREES_IN_CIRCLE / 12; // each number represents 30 degrees.
+
+    private final Paint mPaint = new Paint();
+    private final Matrix mSelectionShaderMatrix = new Matrix();
+
+    private boolean mIsInitialized;
+    private boolean mDrawValuesReady;
+
+    private int mCircleColor;
+    private int mSelectorColor;
+    private int mDotColor;
+    private int mNumbersTextColor;
+    private Typeface mTypefaceLight;
+    private Typeface mTypefaceRegular;
+
+    private final Dial mHourDial = new Dial();
+    private final Dial mMinuteDial = new Dial();
+
+    public RadialDialView(Context context) {
+        super(context);
+        mIsInitialized = false;
+    }
+
+    /**
+     * Initialize both dials with the state of the picker.
+     *
+     * @param theme              The resolved colors and typefaces of the picker.
+     * @param hourGeometry       The geometry of the hours, with an inner circle in 24-hour mode.
+     * @param minuteGeometry     The geometry of the minutes and of the main circle.
+     * @param hourTexts          The 12 hours of the outer circle, starting from the top.
+     * @param innerHourTexts     The 12 hours of the inner circle, or null without one.
+     * @param minuteTexts        The 12 minutes shown, starting from the top.
+     * @param hourDegrees        The initial degrees of the selected hour.
+     * @param isHourInnerCircle  Whether the selected hour is in the inner circle.
+     * @param minuteDegrees      The initial degrees of the selected minute.
+     */
+    public void initialize(PickerTheme theme, RadialGeometry hourGeometry, RadialGeometry minuteGeometry,
+                           String[] hourTexts, String[] innerHourTexts, String[] minuteTexts,
+                           int hourDegrees, boolean isHourInnerCircle, int minuteDegrees) {
+        if (mIsInitialized) {
+            Log.e(TAG, "This RadialDialView may only be initialized once.");
+            return;
+        }
+
+        mCircleColor = theme.circleBackgroundColor;
+        mSelectorColor = theme.primaryColor;
+        mDotColor = Color.WHITE;
+        mNumbersTextColor = theme.numbersTextColor;
+        mTypefaceLight = theme.radialNumbersTypeface;
+        mTypefaceRegular = theme.sansSerifTypeface;
+        mPaint.setAntiAlias(true);
+        mPaint.setTextAlign(Align.CENTER);
+
+        mHourDial.initialize(hourGeometry, hourTexts, innerHourTexts, true, hourDegrees, isHourInnerCircle);
+        mMinuteDial.initialize(minuteGeometry, minuteTexts, null, false, minuteDegrees, false);
+
+        mIsInitialized = true;
+    }
+
+    /**
+     * Called by the layout once the geometry has been updated for a new size.
+     */
+    public void onGeometryChanged() {
+        if (!mDrawValuesReady) {
+            // Because the text positions will be static, pre-render the animations.
+            mHourDial.renderAnimations();
+            mMinuteDial.renderAnimations();
+            mDrawValuesReady = true;
+        }
+        mHourDial.onGeometryChanged();
+        mMinuteDial.onGeometryChanged();
+        invalidate();
+    }
+
+    public Dial getHourDial() {
+        return mHourDial;
+    }
+
+    public Dial getMinuteDial() {
+        return mMinuteDial;
+    }
+
+    /**
+     * Allows for smoother animations.
+     */
+    @Override
+    public boolean hasOverlappingRendering() {
+        return false;
+    }
+
+    @Override
+    public void onDraw(Canvas canvas) {
+        int viewWidth = getWidth();
+        if (viewWidth == 0 || !mIsInitialized || !mDrawValuesReady) {
+            return;
+        }
+        RadialGeometry geometry = mMinuteDial.mGeometry;
+
+        // Draw the white circle.
+        setPaintColor(mCircleColor, 1f);
+        canvas.drawCircle(geometry.xCenter, geometry.yCenter, geometry.circleRadius, mPaint);
+
+        // Draw a small circle in the center.
+        setPaintColor(mSelectorColor, 1f);
+        canvas.drawCircle(geometry.xCenter, geometry.yCenter, 8, mPaint);
+
+        mHourDial.draw(canvas);
+        mMinuteDial.draw(canvas);
+    }
+
+    private void setPaintColor(int color, float alpha) {
+        mPaint.setColor(color);
+        mPaint.setAlpha((int) (Color.alpha(color) * alpha));
+    }
+
+    /**
+     * The hours or the minutes: the numbers, the selection and the animation state.
+     */
+    public class Dial {
+        private RadialGeometry mGeometry;
+        private String[] mTexts;
+        private String[] mInnerTexts;
+        private boolean mHasInnerCircle;
+
+        private int mSelectionDegrees;
+        private double mSelectionRadians;
+        private boolean mSelectionInnerCircle;
+        private int mLineLength;
+        // Set by getDegreesFromCoords, whether the coordinates were on the inner circle.
+        private boolean mTouchInnerCircle;
+
+        private float mAlpha = 1f;
+        private float mAnimationRadiusMultiplier;
+        private float mTransitionMidRadiusMultiplier;
+        private float mTransitionEndRadiusMultiplier;
+        private ObjectAnimator mDisappearAnimator;
+        private ObjectAnimator mReappearAnimator;
+
+        // White within the selection radius and the color of the numbers outside of it, centered on
+        // the origin and translated to the selection when drawing.
+        private Shader mSelectionTextShader;
+
+        private boolean mTextGridValuesDirty;
+        private float[] mTextGridHeights;
+        private float[] mTextGridWidths;
+        private float[] mInnerTextGridHeights;
+        private float[] mInnerTextGridWidths;
+
+        private void initialize(RadialGeometry geometry, String[] texts, String[] innerTexts,
+                                boolean disappearsOut, int selectionDegrees, boolean isInnerCircle) {
+            mGeometry = geometry;
+            mTexts = texts;
+            mInnerTexts = innerTexts;
+            mHasInnerCircle = (innerTexts != null);
+
+            // Initialize the widths and heights of the grid.
+            mTextGridHeights = new float[7];
+            mTextGridWidths = new float[7];
+            if (mHasInnerCircle) {
+                mInnerTextGridHeights = new float[7];
+                mInnerTextGridWidths = new float[7];
+            }
+
+            // Calculate values for the transition mid-way states.
+            mAnimationRadiusMultiplier = 1;
+            mTransitionMidRadiusMultiplier = 1f + (0.05f * (disappearsOut ? -1 : 1));
+            mTransitionEndRadiusMultiplier = 1f + (0.3f * (disappearsOut ? 1 : -1));
+
+            mSelectionDegrees = -1;
+            setSelection(selectionDegrees, isInnerCircle);
+            mTextGridValuesDirty = true;
+        }
+
+        private void onGeometryChanged() {
+            int selectionRadius = mGeometry.selectionRadius;
+            if (selectionRadius > 0) {
+                // Fade from white to the numbers' color over the last pixel, like an anti-aliased edge.
+                float edge = 1f - 1f / selectionRadius;
+                mSelectionTextShader = new RadialGradient(0, 0, selectionRadius,
+                        new int[]{Color.WHITE, Color.WHITE, mNumbersTextColor},
+                        new float[]{0f, edge, 1f}, Shader.TileMode.CLAMP);
+            } else {
+                mSelectionTextShader = null;
+            }
+            mTextGridValuesDirty = true;
+        }
+
+        /**
+         * Set the selection.
+         *
+         * @param selectionDegrees The degrees to be selected.
+         * @param isInnerCircle    Whether the selection should be in the inner circle or outer. Will be
+         *                         ignored if the dial has no inner circle.
+         */
+        public void setSelection(int selectionDegrees, boolean isInnerCircle) {
+            isInnerCircle = mHasInnerCircle && isInnerCircle;
+            if (mSelectionDegrees == selectionDegrees && mSelectionInnerCircle == isInnerCircle) {
+                // Moves within the same number don't need to redraw anything.
+                return;
+            }
+            mSelectionDegrees = selectionDegrees;
+            mSelectionRadians = selectionDegrees * Math.PI / 180;
+            mSelectionInnerCircle = isInnerCircle;
+            invalidate();
+        }
+
+        /**
+         * Used by the animations, and to show or hide the dial without one.
+         */
+        public void setAlpha(float alpha) {
+            mAlpha = alpha;
+            invalidate();
+        }
+
+        /**
+         * Set the multiplier for the radius. Will be used during animations to move in/out.
+         */
+        public void setAnimationRadiusMultiplier(float animationRadiusMultiplier) {
+            mAnimationRadiusMultiplier = animationRadiusMultiplier;
+            mTextGridValuesDirty = true;
+            invalidate();
+        }
+
+        private float getNumbersRadiusMultiplier(boolean isInnerCircle) {
+            return isInnerCircle
+                    ? mGeometry.profile.innerNumbersRadiusMultiplier
+                    : mGeometry.profile.numbersRadiusMultiplier;
+        }
+
+        /**
+         * @return whether the coordinates last passed to {@link #getDegreesFromCoords} were on the
+         * inner circle. Always false without one.
+         */
+        public boolean isTouchInnerCircle() {
+            return mTouchInnerCircle;
+        }
+
+        /**
+         * Calculate the degrees within the circle that corresponds to the specified coordinates, if
+         * the coordinates are within the range that will trigger a selection. Whether they are on the
+         * inner circle is then given by {@link #isTouchInnerCircle()}.
+         *
+         * @return Degrees from 0 to 360, if the selection was within the legal range. -1 if not.
+         */
+        public int getDegreesFromCoords(float pointX, float pointY, boolean forceLegal) {
+            mTouchInnerCircle = false;
+            if (!mDrawValuesReady) {
+                return -1;
+            }
+            int xCenter = mGeometry.xCenter;
+            int yCenter = mGeometry.yCenter;
+            int circleRadius = mGeometry.circleRadius;
+            int selectionRadius = mGeometry.selectionRadius;
+            float innerNumbersRadiusMultiplier = mGeometry.profile.innerNumbersRadiusMultiplier;
+            float outerNumbersRadiusMultiplier = mGeometry.profile.numbersRadiusMultiplier;
+
+            double hypotenuse = Math.sqrt(
+                    (pointY - yCenter) * (pointY - yCenter) +
+                            (pointX - xCenter) * (pointX - xCenter));
+            // Check if we're outside the range
+            if (mHasInnerCircle) {
+                if (forceLegal) {
+                    // If we're told to force the coordinates to be legal, we'll set the inner circle
+                    // flag based off whichever number the coordinates are closer to.
+                    int innerNumberRadius = (int) (circleRadius * innerNumbersRadiusMultiplier);
+                    int distanceToInnerNumber = (int) Math.abs(hypotenuse - innerNumberRadius);
+                    int outerNumberRadius = (int) (circleRadius * outerNumbersRadiusMultiplier);
+                    int distanceToOuterNumber = (int) Math.abs(hypotenuse - outerNumberRadius);
+
+                    mTouchInnerCircle = (distanceToInnerNumber <= distanceToOuterNumber);
+                } else {
+                    // Otherwise, if we're close enough to either number (with the space between the
+                    // two allotted equally), set the inner circle flag as the closer one.
+                    // appropriately, but otherwise return -1.
+                    int minAllowedHypotenuseForInnerNumber =
+                            (int) (circleRadius * innerNumbersRadiusMultiplier) - selectionRadius;
+                    int maxAllowedHypotenuseForOuterNumber =
+                            (int) (circleRadius * outerNumbersRadiusMultiplier) + selectionRadius;
+                    int halfwayHypotenusePoint = (int) (circleRadius *
+                            ((outerNumbersRadiusMultiplier + innerNumbersRadiusMultiplier) / 2));
+
+                    if (hypotenuse >= minAllowedHypotenuseForInnerNumber &&
+                            hypotenuse <= halfwayHypotenusePoint) {
+                        mTouchInnerCircle = true;
+                    } else if (hypotenuse <= maxAllowedHypotenuseForOuterNumber &&
+                            hypotenuse >= halfwayHypotenusePoint) {
+                        mTouchInnerCircle = false;
+                    } else {
+                        return -1;
+                    }
+                }
+            } else {
+                // If there's just one circle, we'll need to return -1 if:
+                // we're not told to force the coordinates to be legal, and
+                // the coordinates' distance to the number is within the allowed distance.
+                if (!forceLegal) {
+                    int distanceToNumber = (int) Math.abs(hypotenuse - mLineLength);
+                    // The max allowed distance will be defined as the distance from the center of the
+                    // number to the edge of the circle.
+                    int maxAllowedDistance = (int) (circleRadius * (1 - outerNumbersRadiusMultiplier));
+                    if (distanceToNumber > maxAllowedDistance) {
+                        return -1;
+                    }
+                }
+            }
+
+
+            float opposite = Math.abs(pointY - yCenter);
+            double radians = Math.asin(opposite / hypotenuse);
+            int degrees = (int) (radians * 180 / Math.PI);
+
+            // Now we have to translate to the correct quadrant.
+            boolean rightSide = (pointX > xCenter);
+            boolean topSide = (pointY < yCenter);
+            if (rightSide && topSide) {
+                degrees = 90 - degrees;
+            } else if (rightSide && !topSide) {
+                degrees = 90 + degrees;
+            } else if (!rightSide && !topSide) {
+                degrees = 270 - degrees;
+            } else if (!rightSide && topSide) {
+                degrees = 270 + degrees;
+            }
+            return degrees;
+        }
+
+        private void draw(Canvas canvas) {
+            if (mAlpha <= 0f) {
+                return;
+            }
+            RadialGeometry geometry = mGeometry;
+            int xCenter = geometry.xCenter;
+            int yCenter = geometry.yCenter;
+            int selectionRadius = geometry.selectionRadius;
+
+            // Calculate the current radius at which to place the selection circle.
+            mLineLength = (int) (geometry.circleRadius * getNumbersRadiusMultiplier(mSelectionInnerCircle)
+                    * mAnimationRadiusMultiplier);
+            int pointX = xCenter + (int) (mLineLength * Math.sin(mSelectionRadians));
+            int pointY = yCenter - (int) (mLineLength * Math.cos(mSelectionRadians));
+
+            // Draw the selection circle.
+            setPaintColor(mSelectorColor, mAlpha);
+            canvas.drawCircle(pointX, pointY, selectionRadius, mPaint);
+
+            // Draw the line from the center of the circle.
+            mPaint.setStrokeWidth(3);
+            canvas.drawLine(xCenter, yCenter, pointX, pointY, mPaint);
+            mPaint.setStrokeWidth(1);
+
+            if (mSelectionDegrees % 30 != 0) {
+                // We're not on a direct tick (or we've been told to draw the dot anyway).
+                setPaintColor(mDotColor, mAlpha);
+                canvas.drawCircle(pointX, pointY, (selectionRadius / 7), mPaint);
+            }
+
+            // Calculate the text positions, but only if they've changed since the last draw.
+            if (mTextGridValuesDirty) {
+                // Calculate the positions for the 12 numbers in the main circle.
+                float numbersRadius = geometry.circleRadius * getNumbersRadiusMultiplier(false)
+                        * mAnimationRadiusMultiplier;
+                calculateGridSizes(numbersRadius, xCenter, yCenter,
+                        geometry.textSize, mTextGridHeights, mTextGridWidths);
+                if (mHasInnerCircle) {
+                    // If we have an inner circle, calculate those positions too.
+                    float innerNumbersRadius = geometry.circleRadius * getNumbersRadiusMultiplier(true)
+                            * mAnimationRadiusMultiplier;
+                    calculateGridSizes(innerNumbersRadius, xCenter, yCenter,
+                            geometry.innerTextSize, mInnerTextGridHeights, mInnerTextGridWidths);
+                }
+
+                mTextGridValuesDirty = false;
+            }
+
+            // The numbers under the selection circle are drawn in white within it.
+            if (mSelectionTextShader != null) {
+                mSelectionShaderMatrix.setTranslate(pointX, pointY);
+                mSelectionTextShader.setLocalMatrix(mSelectionShaderMatrix);
+            }
+
+            // Draw the texts in the pre-calculated positions.
+            drawTexts(canvas, geometry.textSize, mTypefaceLight, mTexts,
+                    mTextGridWidths, mTextGridHeights, !mSelectionInnerCircle);
+            if (mHasInnerCircle) {
+                drawTexts(canvas, geometry.innerTextSize, mTypefaceRegular, mInnerTexts,
+                        mInnerTextGridWidths, mInnerTextGridHeights, mSelectionInnerCircle);
+            }
+        }
+
+        /**
+         * Draw the 12 text values at the positions specified by the textGrid parameters.
+         */
+        private void drawTexts(Canvas canvas, float textSize, Typeface typeface, String[] texts,
+                               float[] textGridWidths, float[] textGridHeights, boolean useSelectionTextEffect) {
+            mPaint.setTextSize(textSize);
+            mPaint.setTypeface(typeface);
+
+            drawText(canvas, texts, 0, textGridWidths[3], textGridHeights[0], useSelectionTextEffect);
+            drawText(canvas, texts, 1, textGridWidths[4], textGridHeights[1], useSelectionTextEffect);
+            drawText(canvas, texts, 2, textGridWidths[5], textGridHeights[2], useSelectionTextEffect);
+            drawText(canvas, texts, 3, textGridWidths[6], textGridHeights[3], useSelectionTextEffect);
+            drawText(canvas, texts, 4, textGridWidths[5], textGridHeights[4], useSelectionTextEffect);
+            drawText(canvas, texts, 5, textGridWidths[4], textGridHeights[5], useSelectionTextEffect);
+            drawText(canvas, texts, 6, textGridWidths[3], textGridHeights[6], useSelectionTextEffect);
+            drawText(canvas, texts, 7, textGridWidths[2], textGridHeights[5], useSelectionTextEffect);
+            drawText(canvas, texts, 8, textGridWidths[1], textGridHeights[4], useSelectionTextEffect);
+            drawText(canvas, texts, 9, textGridWidths[0], textGridHeights[3], useSelectionTextEffect);
+            drawText(canvas, texts, 10, textGridWidths[1], textGridHeights[2], useSelectionTextEffect);
+            drawText(canvas, texts, 11, textGridWidths[2], textGridHeights[1], useSelectionTextEffect);
+        }
+
+        /**
+         * Draw the text at the given position on the canvas.
+         *
+         * If the text position intersects with the selector position, the text should be drawn partially white
+         * and partially the standard text colour depending on the amount of overlap.
+         */
+        private void drawText(Canvas canvas, String[] texts, int position, float x, float y, boolean useSelectionTextEffect) {
+            boolean useSelectionTextColor = false;
+
+            // If we know the text being drawn may be affected, calculate whether it actually is.
+            if (useSelectionTextEffect) {
+                int positionDegrees = position * DEGREE_POSITION_TICK;
+
+                // Is the selector between this text and the next text.
+                if (positionDegrees < mSelectionDegrees + DEGREE_POSITION_TICK) {
+
+                    // Is the selector between this text and the previous text.
+                    if (positionDegrees > mSelectionDegrees - DEGREE_POSITION_TICK) {
+                        useSelectionTextColor = true;
+
+                    } else if (positionDegrees == 0 && mSelectionDegrees > DEGREES_IN_CIRCLE - DEGREE_POSITION_TICK) {
+                        // Special case for the first text since the previous text would be negative.
+                        useSelectionTextColor = true;
+                    }
+                }
+            }
+
+            String text = texts[position];
+            if (!useSelectionTextColor || mSelectionTextShader == null) {
+                // Draw the text as normal.
+                setPaintColor(mNumbersTextColor, mAlpha);
+                canvas.drawText(text, x, y, mPaint);
+                return;
+            }
+
+            // Draw the text white within the selector circle and in the standard color outside of
+            // it. The shader gives the colors, the paint only the alpha of the dial.
+            setPaintColor(Color.WHITE, mAlpha);
+            mPaint.setShader(mSelectionTextShader);
+            canvas.drawText(text, x, y, mPaint);
+            mPaint.setShader(null);
+        }
+
+        /**
+         * Render the animations for appearing and disappearing.
+         */
+        private void renderAnimations() {
+            Keyframe kf0, kf1, kf2, kf3;
+            float midwayPoint = 0.2f;
+            int duration = 500;
+
+            // Set up animator for disappearing.
+            kf0 = Keyframe.ofFloat(0f, 1);
+            kf1 = Keyframe.ofFloat(midwayPoint, mTransitionMidRadiusMultiplier);
+            kf2 = Keyframe.ofFloat(1f, mTransitionEndRadiusMultiplier);
+            PropertyValuesHolder radiusDisappear = PropertyValuesHolder.ofKeyframe(
+                    "animationRadiusMultiplier", kf0, kf1, kf2);
+
+            kf0 = Keyframe.ofFloat(0f, 1f);
+            kf1 = Keyframe.ofFloat(1f, 0f);
+            PropertyValuesHolder fadeOut = PropertyValuesHolder.ofKeyframe("alpha", kf0, kf1);
+
+            mDisappearAnimator = ObjectAnimator.ofPropertyValuesHolder(
+                    this, radiusDisappear, fadeOut).setDuration(duration);
+
+
+            // Set up animator for reappearing.
+            // The time points are half of what they would normally be, because this animation is
+            // staggered against the disappear so they happen seamlessly. The reappear starts
+            // halfway into the disappear.
+            float delayMultiplier = 0.25f;
+            float transitionDurationMultiplier = 1f;
+            float totalDurationMultiplier = transitionDurationMultiplier + delayMultiplier;
+            int totalDuration = (int) (duration * totalDurationMultiplier);
+            float delayPoint = (delayMultiplier * duration) / totalDuration;
+            midwayPoint = 1 - (midwayPoint * (1 - delayPoint));
+
+            kf0 = Keyframe.ofFloat(0f, mTransitionEndRadiusMultiplier);
+            kf1 = Keyframe.ofFloat(delayPoint, mTransitionEndRadiusMultiplier);
+            kf2 = Keyframe.ofFloat(midwayPoint, mTransitionMidRadiusMultiplier);
+            kf3 = Keyframe.ofFloat(1f, 1);
+            PropertyValuesHolder radiusReappear = PropertyValuesHolder.ofKeyframe(
+                    "animationRadiusMultiplier", kf0, kf1, kf2, kf3);
+
+            kf0 = Keyframe.ofFloat(0f, 0f);
+            kf1 = Keyframe.ofFloat(delayPoint, 0f);
+            kf2 = Keyframe.ofFloat(1f, 1f);
+            PropertyValuesHolder fadeIn = PropertyValuesHolder.ofKeyframe("alpha", kf0, kf1, kf2);
+
+            mReappearAnimator = ObjectAnimator.ofPropertyValuesHolder(
+                    this, radiusReappear, fadeIn).setDuration(totalDuration);
+        }
+
+        public ObjectAnimator getDisappearAnimator() {
+            if (!mIsInitialized || !mDrawValuesReady || mDisappearAnimator == null) {
+                Log.e(TAG, "RadialDialView was not ready for animation.");
+                return null;
+            }
+
+            return mDisappearAnimator;
+        }
+
+        public ObjectAnimator getReappearAnimator() {
+            if (!mIsInitialized || !mDrawValuesReady || mReappearAnimator == null) {
+                Log.e(TAG, "RadialDialView was not ready for animation.");
+                return null;
+            }
+
+            return mReappearAnimator;
+        }
+    }
+
+    /**
+     * Using the trigonometric Unit Circle, calculate the positions that the text will need to be
+     * drawn at based on the specified circle radius. Place the values in the textGridHeights and
+     * textGridWidths parameters.
+     */
+    private void calculateGridSizes(float numbersRadius, float xCenter, float yCenter,
+                                    float textSize, float[] textGridHeights, float[] textGridWidths) {
+        /*
+         * The numbers need to be drawn in a 7x7 grid, representing the points on the Unit Circle.
+         */
+        float offset1 = numbersRadius;
+        // cos(30) = a / r => r * cos(30) = a => r * √3/2 = a
+        float offset2 = numbersRadius * ((float) Math.sqrt(3)) / 2f;
+        // sin(30) = o / r => r * sin(30) = o => r / 2 = a
+        float offset3 = numbersRadius / 2f;
+        mPaint.setTextSize(textSize);
+        // We'll need yTextBase to be slightly lower to account for the text's baseline.
+        yCenter -= (mPaint.descent() + mPaint.ascent()) / 2;
+
+        textGridHeights[0] = yCenter - offset1;
+        textGridWidths[0] = xCenter - offset1;
+        textGridHeights[1] = yCenter - offset2;
+        textGridWidths[1] = xCenter - offset2;
+        textGridHeights[2] = yCenter - offset3;
+        textGridWidths[2] = xCenter - offset3;
+        textGridHeights[3] = yCenter;
+        textGridWidths[3] = xCenter;
+        textGridHeights[4] = yCenter + offset3;
+        textGridWidths[4] = xCenter + offset3;
+        textGridHeights[5] = yCenter + offset2;
+        textGridWidths[5] = xCenter + offset2;
+        textGridHeights[6] = yCenter + offset1;
+        textGridWidths[6] = xCenter + offset1;
+    }
+}
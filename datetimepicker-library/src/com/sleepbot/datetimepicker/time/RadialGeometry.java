@@ -0,0 +1,62 @@
+package com.sleepbot.datetimepicker.time;
+
+/**
+ * Radii and centers of the radial time picker for its current size, derived from a
+ * {@link RadialGeometryProfile}. {@link RadialPickerLayout} updates it when its size changes and
+ * then tells its child views, which all draw and hit test from the same values.
+ */
+public final class RadialGeometry {
+    public final RadialGeometryProfile profile;
+
+    private boolean mReady;
+
+    public int xCenter;
+    public int yCenter;
+    public int circleRadius;
+    public int selectionRadius;
+    public float textSize;
+    public float innerTextSize;
+
+    // Only set when the profile has AM/PM circles.
+    public int amPmCircleRadius;
+    public int amPmYCenter;
+    public int amXCenter;
+    public int pmXCenter;
+
+    public RadialGeometry(RadialGeometryProfile profile) {
+        this.profile = profile;
+    }
+
+    /**
+     * @return whether the values have been computed for a size yet.
+     */
+    public boolean isReady() {
+        return mReady;
+    }
+
+    public void update(int width, int height) {
+        xCenter = width / 2;
+        yCenter = height / 2;
+        circleRadius = (int) (Math.min(xCenter, yCenter) * profile.circleRadiusMultiplier);
+
+        if (profile.hasAmPm) {
+            // We'll need to draw the AM/PM circles, so the main circle will need to have
+            // a slightly higher center. To keep the entire view centered vertically, we'll
+            // have to push it up by half the radius of the AM/PM circles.
+            amPmCircleRadius = (int) (circleRadius * profile.amPmCircleRadiusMultiplier);
+            yCenter -= amPmCircleRadius / 2;
+
+            // Line up the vertical center of the AM/PM circles with the bottom of the main circle,
+            // and their horizontal edges with the horizontal edges of the main circle.
+            amPmYCenter = yCenter + circleRadius;
+            amXCenter = xCenter - circleRadius + amPmCircleRadius;
+            pmXCenter = xCenter + circleRadius - amPmCircleRadius;
+        }
+
+        selectionRadius = (int) (circleRadius * profile.selectionRadiusMultiplier);
+        textSize = circleRadius * profile.textSizeMultiplier;
+        innerTextSize = circleRadius * profile.innerTextSizeMultiplier;
+
+        mReady = true;
+    }
+}
@@ -0,0 +1,77 @@
+package com.sleepbot.datetimepicker.time;
+
+import android.content.res.Configuration;
+import android.content.res.Resources;
+
+import com.fourmob.datetimepicker.R;
+
+/**
+ * The parsed size multipliers of the radial time picker, relative to the radius of the main
+ * circle. There is one profile for each combination of AM/PM circles shown or hidden and inner
+ * circle of numbers or not, parsed once and shared by every radial view until the configuration
+ * changes.
+ */
+public final class RadialGeometryProfile {
+    private static final RadialGeometryProfile[] sProfiles = new RadialGeometryProfile[4];
+    private static Configuration sConfiguration;
+
+    public final boolean hasAmPm;
+    public final boolean hasInnerCircle;
+
+    public final float circleRadiusMultiplier;
+    public final float amPmCircleRadiusMultiplier;
+    public final float selectionRadiusMultiplier;
+    // The outer circle of numbers when there is an inner circle.
+    public final float numbersRadiusMultiplier;
+    public final float textSizeMultiplier;
+    public final float innerNumbersRadiusMultiplier;
+    public final float innerTextSizeMultiplier;
+
+    private RadialGeometryProfile(Resources res, boolean hasAmPm, boolean hasInnerCircle) {
+        this.hasAmPm = hasAmPm;
+        this.hasInnerCircle = hasInnerCircle;
+
+        circleRadiusMultiplier = parseFloat(res, hasAmPm ?
+                R.string.circle_radius_multiplier : R.string.circle_radius_multiplier_24HourMode);
+        amPmCircleRadiusMultiplier = hasAmPm ? parseFloat(res, R.string.ampm_circle_radius_multiplier) : 0;
+        selectionRadiusMultiplier = parseFloat(res, R.string.selection_radius_multiplier);
+
+        if (hasInnerCircle) {
+            numbersRadiusMultiplier = parseFloat(res, R.string.numbers_radius_multiplier_outer);
+            textSizeMultiplier = parseFloat(res, R.string.text_size_multiplier_outer);
+            innerNumbersRadiusMultiplier = parseFloat(res, R.string.numbers_radius_multiplier_inner);
+            innerTextSizeMultiplier = parseFloat(res, R.string.text_size_multiplier_inner);
+        } else {
+            numbersRadiusMultiplier = parseFloat(res, R.string.numbers_radius_multiplier_normal);
+            textSizeMultiplier = parseFloat(res, R.string.text_size_multiplier_normal);
+            innerNumbersRadiusMultiplier = 0;
+            innerTextSizeMultiplier = 0;
+        }
+    }
+
+    private static float parseFloat(Resources res, int id) {
+        return Float.parseFloat(res.getString(id));
+    }
+
+    /**
+     * @param hideAmPm       Whether the AM/PM circles are hidden, which leaves the main circle
+     *                       centered in the picker instead of moved up to make room for them.
+     * @param hasInnerCircle Whether there is an inner circle of numbers, for the hours in 24-hour mode.
+     */
+    public static RadialGeometryProfile get(Resources res, boolean hideAmPm, boolean hasInnerCircle) {
+        Configuration configuration = res.getConfiguration();
+        synchronized (sProfiles) {
+            if (sConfiguration == null || !sConfiguration.equals(configuration)) {
+                sConfiguration = new Configuration(configuration);
+                for (int i = 0; i < sProfiles.length; i++) {
+                    sProfiles[i] = null;
+                }
+            }
+            int index = (hideAmPm ? 0 : 2) + (hasInnerCircle ? 1 : 0);
+            if (sProfiles[index] == null) {
+                sProfiles[index] = new RadialGeometryProfile(res, !hideAmPm, hasInnerCircle);
+            }
+            return sProfiles[index];
+        }
+    }
+}
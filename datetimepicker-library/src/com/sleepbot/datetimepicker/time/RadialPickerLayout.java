@@ -39,6 +39,7 @@ import android.view.accessibility.AccessibilityManager;
 import android.view.accessibility.AccessibilityNodeInfo;
 import android.widget.FrameLayout;
 
+import com.fourmob.datetimepicker.PickerTheme;
 import com.fourmob.datetimepicker.R;
 import com.fourmob.datetimepicker.Utils;
 import com.nineoldandroids.animation.AnimatorSet;
@@ -73,12 +74,13 @@ public class RadialPickerLayout extends FrameLayout implements OnTouchListener {
     private boolean mHideAmPm;
     private int mCurrentItemShowing;
 
-    private CircleView mCircleView;
+    private final PickerTheme mPickerTheme;
+    // Shared by the circle, the AM/PM circles and the minutes, and by the hours unless the hours
+    // have an inner circle.
+    private RadialGeometry mGeometry;
+    private RadialGeometry mHourGeometry;
+    private RadialDialView mDialView;
     private AmPmCirclesView mAmPmCirclesView;
-    private RadialTextsView mHourRadialTextsView;
-    private RadialTextsView mMinuteRadialTextsView;
-    private RadialSelectorView mHourRadialSelectorView;
-    private RadialSelectorView mMinuteRadialSelectorView;
     private View mGrayBox;
 
     private int[] mSnapPrefer30sMap;
@@ -87,6 +89,8 @@ public class RadialPickerLayout extends FrameLayout implements OnTouchListener {
     private boolean mDoingMove;
     private boolean mDoingTouch;
     private int mDownDegrees;
+    private boolean mDownInnerCircle;
+    private boolean mIsTouchInnerCircle;
     private float mDownX;
     private float mDownY;
     private AccessibilityManager mAccessibilityManager;
@@ -94,6 +98,25 @@ public class RadialPickerLayout extends FrameLayout implements OnTouchListener {
     private AnimatorSet mTransition;
     private Handler mHandler = new Handler();
 
+    // Posted TAP_TIMEOUT after a down, unless the finger moves or goes up before then. Allocated
+    // once so touches don't allocate.
+    private final Runnable mAmPmPressedRunnable = new Runnable() {
+        @Override
+        public void run() {
+            mAmPmCirclesView.setAmOrPmPressed(mIsTouchingAmOrPm);
+            mAmPmCirclesView.invalidate();
+        }
+    };
+    private final Runnable mDownSelectionRunnable = new Runnable() {
+        @Override
+        public void run() {
+            mDoingMove = true;
+            int value = reselectSelector(mDownDegrees, mDownInnerCircle, false);
+            mLastValueSelected = value;
+            mListener.onValueSelected(getCurrentItemShowing(), value, false, false);
+        }
+    };
+
     public interface OnValueSelectedListener {
         void onValueSelected(int pickerIndex, int newValue, boolean autoAdvance, boolean isTouchReleased);
     }
@@ -102,27 +125,18 @@ public class RadialPickerLayout extends FrameLayout implements OnTouchListener {
         super(context, attrs);
 
         setOnTouchListener(this);
+        mPickerTheme = PickerTheme.get(context);
         ViewConfiguration vc = ViewConfiguration.get(context);
         TOUCH_SLOP = vc.getScaledTouchSlop();
         TAP_TIMEOUT = ViewConfiguration.getTapTimeout();
         mDoingMove = false;
 
-        mCircleView = new CircleView(context);
-        addView(mCircleView);
+        mDialView = new RadialDialView(context);
+        addView(mDialView);
 
         mAmPmCirclesView = new AmPmCirclesView(context);
         addView(mAmPmCirclesView);
 
-        mHourRadialSelectorView = new RadialSelectorView(context);
-        addView(mHourRadialSelectorView);
-        mMinuteRadialSelectorView = new RadialSelectorView(context);
-        addView(mMinuteRadialSelectorView);
-
-        mHourRadialTextsView = new RadialTextsView(context);
-        addView(mHourRadialTextsView);
-        mMinuteRadialTextsView = new RadialTextsView(context);
-        addView(mMinuteRadialTextsView);
-
         // Prepare mapping to snap touchable degrees to selectable degrees.
         preparePrefer30sMap();
 
@@ -134,7 +148,7 @@ public class RadialPickerLayout extends FrameLayout implements OnTouchListener {
         mGrayBox = new View(context);
         mGrayBox.setLayoutParams(new ViewGroup.LayoutParams(
                 ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT));
-        mGrayBox.setBackgroundColor(getResources().getColor(R.color.transparent_black));
+        mGrayBox.setBackgroundColor(mPickerTheme.transparentBlackColor);
         mGrayBox.setVisibility(View.INVISIBLE);
         addView(mGrayBox);
 
@@ -158,6 +172,29 @@ public class RadialPickerLayout extends FrameLayout implements OnTouchListener {
                 MeasureSpec.makeMeasureSpec(minDimension, heightMode));
     }
 
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        if (mTimeInitialized) {
+            updateGeometry(w, h);
+        }
+    }
+
+    /**
+     * Computes the radii and centers once for the new size and hands them to every child view.
+     */
+    private void updateGeometry(int width, int height) {
+        mGeometry.update(width, height);
+        if (mHourGeometry != mGeometry) {
+            mHourGeometry.update(width, height);
+        }
+
+        mDialView.onGeometryChanged();
+        if (!mHideAmPm) {
+            mAmPmCirclesView.onGeometryChanged();
+        }
+    }
+
     public void setOnValueSelectedListener(OnValueSelectedListener listener) {
         mListener = listener;
     }
@@ -181,49 +218,41 @@ public class RadialPickerLayout extends FrameLayout implements OnTouchListener {
 
         mVibrate = vibrate;
 
-        // Initialize the circle and AM/PM circles if applicable.
-        mCircleView.initialize(context, mHideAmPm);
-        mCircleView.invalidate();
+        // Only the hours in 24-hour mode have an inner circle.
+        Resources res = context.getResources();
+        mGeometry = new RadialGeometry(RadialGeometryProfile.get(res, mHideAmPm, false));
+        mHourGeometry = is24HourMode
+                ? new RadialGeometry(RadialGeometryProfile.get(res, mHideAmPm, true)) : mGeometry;
+
+        // Initialize the AM/PM circles if applicable.
         if (!mHideAmPm) {
-            mAmPmCirclesView.initialize(context, initialHoursOfDay < 12 ? AM : PM);
+            mAmPmCirclesView.initialize(mPickerTheme, mGeometry, initialHoursOfDay < 12 ? AM : PM);
             mAmPmCirclesView.invalidate();
         }
 
-        // Initialize the hours and minutes numbers.
-        Resources res = context.getResources();
-        int[] hours = {12, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11};
-        int[] hours_24 = {0, 13, 14, 15, 16, 17, 18, 19, 20, 21, 22, 23};
-        int[] minutes = {0, 5, 10, 15, 20, 25, 30, 35, 40, 45, 50, 55};
-        String[] hoursTexts = new String[12];
-        String[] innerHoursTexts = new String[12];
-        String[] minutesTexts = new String[12];
-        for (int i = 0; i < 12; i++) {
-            hoursTexts[i] = is24HourMode ?
-                    String.format("%02d", hours_24[i]) : String.format("%d", hours[i]);
-            innerHoursTexts[i] = String.format("%d", hours[i]);
-            minutesTexts[i] = String.format("%02d", minutes[i]);
-        }
+        // Initialize the circle with the hours and minutes numbers and selections.
+        TimeTextCache textCache = TimeTextCache.getInstance();
+        String[] hoursTexts = textCache.getHourLabels(is24HourMode);
+        String[] innerHoursTexts = textCache.getInnerHourLabels();
+        String[] minutesTexts = textCache.getMinuteLabels();
 
         int hourDegrees = (initialHoursOfDay % 12) * HOUR_VALUE_TO_DEGREES_STEP_SIZE;
         int minuteDegrees = initialMinutes * MINUTE_VALUE_TO_DEGREES_STEP_SIZE;
 
         boolean isHourInnerCircle = isHourInnerCircle(initialHoursOfDay);
 
-        mHourRadialTextsView.initialize(res,
-                hoursTexts, (is24HourMode ? innerHoursTexts : null), mHideAmPm, true, hourDegrees, isHourInnerCircle);
-        mHourRadialTextsView.invalidate();
-        mMinuteRadialTextsView.initialize(res, minutesTexts, null, mHideAmPm, false, minuteDegrees, false);
-        mMinuteRadialTextsView.invalidate();
+        mDialView.initialize(mPickerTheme, mHourGeometry, mGeometry,
+                hoursTexts, (is24HourMode ? innerHoursTexts : null), minutesTexts,
+                hourDegrees, isHourInnerCircle, minuteDegrees);
 
         // Initialize the currently-selected hour and minute.
         setValueForItem(HOUR_INDEX, initialHoursOfDay);
         setValueForItem(MINUTE_INDEX, initialMinutes);
-        mHourRadialSelectorView.initialize(context, mHideAmPm, is24HourMode, true,
-                hourDegrees, isHourInnerCircle);
-        mMinuteRadialSelectorView.initialize(context, mHideAmPm, false, false,
-                minuteDegrees, false);
 
         mTimeInitialized = true;
+        if (getWidth() != 0) {
+            updateGeometry(getWidth(), getHeight());
+        }
     }
 
     public void setTime(int hours, int minutes) {
@@ -242,20 +271,11 @@ public class RadialPickerLayout extends FrameLayout implements OnTouchListener {
         if (index == HOUR_INDEX) {
             setValueForItem(HOUR_INDEX, value);
             int hourDegrees = (value % 12) * HOUR_VALUE_TO_DEGREES_STEP_SIZE;
-            mHourRadialSelectorView.setSelection(hourDegrees, isHourInnerCircle(value));
-            mHourRadialSelectorView.invalidate();
-
-            mHourRadialTextsView.setSelection(hourDegrees, isHourInnerCircle(value));
-            mHourRadialTextsView.invalidate();
-
+            mDialView.getHourDial().setSelection(hourDegrees, isHourInnerCircle(value));
         } else if (index == MINUTE_INDEX) {
             setValueForItem(MINUTE_INDEX, value);
             int minuteDegrees = value * MINUTE_VALUE_TO_DEGREES_STEP_SIZE;
-            mMinuteRadialSelectorView.setSelection(minuteDegrees, false);
-            mMinuteRadialSelectorView.invalidate();
-
-            mMinuteRadialTextsView.setSelection(minuteDegrees, isHourInnerCircle(value));
-            mMinuteRadialTextsView.invalidate();
+            mDialView.getMinuteDial().setSelection(minuteDegrees, false);
         }
     }
 
@@ -457,22 +477,15 @@ public class RadialPickerLayout extends FrameLayout implements OnTouchListener {
             degrees = snapOnly30s(degrees, 0);
         }
 
-        RadialSelectorView radialSelectorView;
-        RadialTextsView radialTextsView;
+        RadialDialView.Dial dial;
         if (currentShowing == HOUR_INDEX) {
-            radialSelectorView = mHourRadialSelectorView;
-            radialTextsView = mHourRadialTextsView;
+            dial = mDialView.getHourDial();
             stepSize = HOUR_VALUE_TO_DEGREES_STEP_SIZE;
         } else {
-            radialSelectorView = mMinuteRadialSelectorView;
-            radialTextsView = mMinuteRadialTextsView;
+            dial = mDialView.getMinuteDial();
             stepSize = MINUTE_VALUE_TO_DEGREES_STEP_SIZE;
         }
-        radialSelectorView.setSelection(degrees, isInnerCircle);
-        radialSelectorView.invalidate();
-
-        radialTextsView.setSelection(degrees, isInnerCircle);
-        radialTextsView.invalidate();
+        dial.setSelection(degrees, isInnerCircle);
 
         if (currentShowing == HOUR_INDEX) {
             if (mIs24HourMode) {
@@ -503,23 +516,23 @@ public class RadialPickerLayout extends FrameLayout implements OnTouchListener {
      * @param pointY        The y coordinate.
      * @param forceLegal    Force the selection to be legal, regardless of how far the coordinates are
      *                      from the actual numbers.
-     * @param isInnerCircle If the selection may be in the inner circle, pass in a size-1 boolean
-     *                      array here, inside which the value will be true if the selection is in the inner circle,
-     *                      and false if in the outer circle.
      * @return Degrees from 0 to 360, if the selection was within the legal range. -1 if not.
+     * mIsTouchInnerCircle is set to whether the selection is in the inner circle.
      */
-    private int getDegreesFromCoords(float pointX, float pointY, boolean forceLegal,
-                                     final Boolean[] isInnerCircle) {
+    private int getDegreesFromCoords(float pointX, float pointY, boolean forceLegal) {
         int currentItem = getCurrentItemShowing();
+        RadialDialView.Dial dial;
         if (currentItem == HOUR_INDEX) {
-            return mHourRadialSelectorView.getDegreesFromCoords(
-                    pointX, pointY, forceLegal, isInnerCircle);
+            dial = mDialView.getHourDial();
         } else if (currentItem == MINUTE_INDEX) {
-            return mMinuteRadialSelectorView.getDegreesFromCoords(
-                    pointX, pointY, forceLegal, isInnerCircle);
+            dial = mDialView.getMinuteDial();
         } else {
+            mIsTouchInnerCircle = false;
             return -1;
         }
+        int degrees = dial.getDegreesFromCoords(pointX, pointY, forceLegal);
+        mIsTouchInnerCircle = dial.isTouchInnerCircle();
+        return degrees;
     }
 
     /**
@@ -552,17 +565,13 @@ public class RadialPickerLayout extends FrameLayout implements OnTouchListener {
         mCurrentItemShowing = index;
 
         if (animate && (index != lastIndex)) {
-            ObjectAnimator[] anims = new ObjectAnimator[4];
+            ObjectAnimator[] anims = new ObjectAnimator[2];
             if (index == MINUTE_INDEX) {
-                anims[0] = mHourRadialTextsView.getDisappearAnimator();
-                anims[1] = mHourRadialSelectorView.getDisappearAnimator();
-                anims[2] = mMinuteRadialTextsView.getReappearAnimator();
-                anims[3] = mMinuteRadialSelectorView.getReappearAnimator();
+                anims[0] = mDialView.getHourDial().getDisappearAnimator();
+                anims[1] = mDialView.getMinuteDial().getReappearAnimator();
             } else if (index == HOUR_INDEX) {
-                anims[0] = mHourRadialTextsView.getReappearAnimator();
-                anims[1] = mHourRadialSelectorView.getReappearAnimator();
-                anims[2] = mMinuteRadialTextsView.getDisappearAnimator();
-                anims[3] = mMinuteRadialSelectorView.getDisappearAnimator();
+                anims[0] = mDialView.getHourDial().getReappearAnimator();
+                anims[1] = mDialView.getMinuteDial().getDisappearAnimator();
             }
 
             if (mTransition != null && mTransition.isRunning()) {
@@ -572,21 +581,9 @@ public class RadialPickerLayout extends FrameLayout implements OnTouchListener {
             mTransition.playTogether(anims);
             mTransition.start();
         } else {
-            if (Build.VERSION.SDK_INT >= 11) {
-                int hourAlpha = (index == HOUR_INDEX) ? 255 : 0;
-                int minuteAlpha = (index == MINUTE_INDEX) ? 255 : 0;
-                mHourRadialTextsView.setAlpha(hourAlpha);
-                mHourRadialSelectorView.setAlpha(hourAlpha);
-                mMinuteRadialTextsView.setAlpha(minuteAlpha);
-                mMinuteRadialSelectorView.setAlpha(minuteAlpha);
-            } else {
-                int hourVisibility = (index == HOUR_INDEX) ? View.VISIBLE : View.INVISIBLE;
-                int minuteVisibility = (index == MINUTE_INDEX) ? View.VISIBLE : View.INVISIBLE;
-                mHourRadialTextsView.setVisibility(hourVisibility);
-                mHourRadialSelectorView.setVisibility(hourVisibility);
-                mMinuteRadialTextsView.setVisibility(minuteVisibility);
-                mMinuteRadialSelectorView.setVisibility(minuteVisibility);
-            }
+            // The dials are faded by the dial view itself, so this works on every release.
+            mDialView.getHourDial().setAlpha((index == HOUR_INDEX) ? 1f : 0f);
+            mDialView.getMinuteDial().setAlpha((index == MINUTE_INDEX) ? 1f : 0f);
         }
 
     }
@@ -597,10 +594,6 @@ public class RadialPickerLayout extends FrameLayout implements OnTouchListener {
         final float eventY = event.getY();
         int degrees;
         int value;
-        final Boolean[] isInnerCircle = new Boolean[1];
-        isInnerCircle[0] = false;
-
-        long millis = SystemClock.uptimeMillis();
 
         switch (event.getAction()) {
             case MotionEvent.ACTION_DOWN:
@@ -625,33 +618,19 @@ public class RadialPickerLayout extends FrameLayout implements OnTouchListener {
                     // in case the user moves their finger quickly.
                     tryVibrate();
                     mDownDegrees = -1;
-                    mHandler.postDelayed(new Runnable() {
-                        @Override
-                        public void run() {
-                            mAmPmCirclesView.setAmOrPmPressed(mIsTouchingAmOrPm);
-                            mAmPmCirclesView.invalidate();
-                        }
-                    }, TAP_TIMEOUT);
+                    mHandler.postDelayed(mAmPmPressedRunnable, TAP_TIMEOUT);
                 } else {
                     // If we're in accessibility mode, force the touch to be legal. Otherwise,
                     // it will only register within the given touch target zone.
                     boolean forceLegal = Utils.isTouchExplorationEnabled(mAccessibilityManager);
                     // Calculate the degrees that is currently being touched.
-                    mDownDegrees = getDegreesFromCoords(eventX, eventY, forceLegal, isInnerCircle);
+                    mDownDegrees = getDegreesFromCoords(eventX, eventY, forceLegal);
+                    mDownInnerCircle = mIsTouchInnerCircle;
                     if (mDownDegrees != -1) {
                         // If it's a legal touch, set that number as "selected" after the
                         // TAP_TIMEOUT in case the user moves their finger quickly.
                         tryVibrate();
-                        mHandler.postDelayed(new Runnable() {
-                            @Override
-                            public void run() {
-                                mDoingMove = true;
-                                int value = reselectSelector(mDownDegrees, isInnerCircle[0],
-                                        false);
-                                mLastValueSelected = value;
-                                mListener.onValueSelected(getCurrentItemShowing(), value, false, false);
-                            }
-                        }, TAP_TIMEOUT);
+                        mHandler.postDelayed(mDownSelectionRunnable, TAP_TIMEOUT);
                     }
                 }
                 return true;
@@ -674,7 +653,7 @@ public class RadialPickerLayout extends FrameLayout implements OnTouchListener {
                 // If so, no-op. If not, remove its pressed state. Either way, no need to check
                 // for touches on the other circle.
                 if (mIsTouchingAmOrPm == AM || mIsTouchingAmOrPm == PM) {
-                    mHandler.removeCallbacksAndMessages(null);
+                    mHandler.removeCallbacks(mAmPmPressedRunnable);
                     int isTouchingAmOrPm = mAmPmCirclesView.getIsTouchingAmOrPm(eventX, eventY);
                     if (isTouchingAmOrPm != mIsTouchingAmOrPm) {
                         mAmPmCirclesView.setAmOrPmPressed(-1);
@@ -691,10 +670,10 @@ public class RadialPickerLayout extends FrameLayout implements OnTouchListener {
 
                 // We're doing a move along the circle, so move the selection as appropriate.
                 mDoingMove = true;
-                mHandler.removeCallbacksAndMessages(null);
-                degrees = getDegreesFromCoords(eventX, eventY, true, isInnerCircle);
+                mHandler.removeCallbacks(mDownSelectionRunnable);
+                degrees = getDegreesFromCoords(eventX, eventY, true);
                 if (degrees != -1) {
-                    value = reselectSelector(degrees, isInnerCircle[0], false);
+                    value = reselectSelector(degrees, mIsTouchInnerCircle, false);
                     if (value != mLastValueSelected) {
                         tryVibrate();
                         mLastValueSelected = value;
@@ -710,7 +689,7 @@ public class RadialPickerLayout extends FrameLayout implements OnTouchListener {
                     return true;
                 }
 
-                mHandler.removeCallbacksAndMessages(null);
+                removePendingCallbacks();
                 mDoingTouch = false;
 
                 // If we're touching AM or PM, set it as selected, and tell the listener.
@@ -732,9 +711,9 @@ public class RadialPickerLayout extends FrameLayout implements OnTouchListener {
 
                 // If we have a legal degrees selected, set the value and tell the listener.
                 if (mDownDegrees != -1) {
-                    degrees = getDegreesFromCoords(eventX, eventY, mDoingMove, isInnerCircle);
+                    degrees = getDegreesFromCoords(eventX, eventY, mDoingMove);
                     if (degrees != -1) {
-                        value = reselectSelector(degrees, isInnerCircle[0], !mDoingMove);
+                        value = reselectSelector(degrees, mIsTouchInnerCircle, !mDoingMove);
                         if (getCurrentItemShowing() == HOUR_INDEX && !mIs24HourMode) {
                             int amOrPm = getIsCurrentlyAmOrPm();
                             if (amOrPm == AM && value == 12) {
@@ -749,12 +728,43 @@ public class RadialPickerLayout extends FrameLayout implements OnTouchListener {
                 }
                 mDoingMove = false;
                 return true;
+            case MotionEvent.ACTION_CANCEL:
+                // The gesture was taken away, drop it without selecting anything.
+                removePendingCallbacks();
+                if (mIsTouchingAmOrPm == AM || mIsTouchingAmOrPm == PM) {
+                    mAmPmCirclesView.setAmOrPmPressed(-1);
+                    mAmPmCirclesView.invalidate();
+                    mIsTouchingAmOrPm = -1;
+                }
+                if (mLastValueSelected != -1) {
+                    // The dial and the listener followed the finger, put them back on the value
+                    // which was set before the gesture.
+                    int currentItemShowing = getCurrentItemShowing();
+                    value = getCurrentlyShowingValue();
+                    setItem(currentItemShowing, value);
+                    mListener.onValueSelected(currentItemShowing, value, false, false);
+                    mLastValueSelected = -1;
+                }
+                mDoingTouch = false;
+                mDoingMove = false;
+                return true;
             default:
                 break;
         }
         return false;
     }
 
+    private void removePendingCallbacks() {
+        mHandler.removeCallbacks(mAmPmPressedRunnable);
+        mHandler.removeCallbacks(mDownSelectionRunnable);
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        removePendingCallbacks();
+    }
+
     /**
      * Try to vibrate. To prevent this becoming a single continuous vibration, nothing will
      * happen if we have vibrated very recently.
@@ -16,15 +16,13 @@ package com.sleepbot.datetimepicker.time;
  */
 
 import android.content.Context;
-import android.content.res.Resources;
 import android.graphics.Canvas;
 import android.graphics.Color;
 import android.graphics.Paint;
 import android.util.Log;
 import android.view.View;
 
-import com.fourmob.datetimepicker.R;
-import com.fourmob.datetimepicker.Utils;
+import com.fourmob.datetimepicker.PickerTheme;
 import com.nineoldandroids.animation.Keyframe;
 import com.nineoldandroids.animation.ObjectAnimator;
 import com.nineoldandroids.animation.PropertyValuesHolder;
@@ -33,7 +31,11 @@ import com.nineoldandroids.animation.ValueAnimator;
 /**
  * View to show what number is selected. This will draw a blue circle over the number, with a blue
  * line coming from the center of the main circle to the edge of the blue selection.
+ *
+ * @deprecated No longer used by {@link RadialPickerLayout}, which draws the dial with
+ * {@link RadialDialView}. Kept for apps which use it directly.
  */
+@Deprecated
 public class RadialSelectorView extends View {
     private static final String TAG = "RadialSelectorView";
 
@@ -42,23 +44,16 @@ public class RadialSelectorView extends View {
     private boolean mIsInitialized;
     private boolean mDrawValuesReady;
 
-    private float mCircleRadiusMultiplier;
-    private float mAmPmCircleRadiusMultiplier;
+    private RadialGeometry mGeometry;
     private float mInnerNumbersRadiusMultiplier;
     private float mOuterNumbersRadiusMultiplier;
     private float mNumbersRadiusMultiplier;
-    private float mSelectionRadiusMultiplier;
     private float mAnimationRadiusMultiplier;
-    private boolean mIs24HourMode;
     private boolean mHasInnerCircle;
 
-    private int mXCenter;
-    private int mYCenter;
-    private int mCircleRadius;
     private float mTransitionMidRadiusMultiplier;
     private float mTransitionEndRadiusMultiplier;
     private int mLineLength;
-    private int mSelectionRadius;
     private InvalidateUpdateListener mInvalidateUpdateListener;
 
     private int mSelectionDegrees;
@@ -76,56 +71,38 @@ public class RadialSelectorView extends View {
     /**
      * Initialize this selector with the state of the picker.
      *
-     * @param context          Current context.
-     * @param is24HourMode     Whether the selector is in 24-hour mode, which will tell us
-     *                         whether the circle's center is moved up slightly to make room for the AM/PM circles.
-     * @param hasInnerCircle   Whether we have both an inner and an outer circle of numbers
-     *                         that may be selected. Should be true for 24-hour mode in the hours circle.
+     * @param theme            The resolved colors of the picker.
+     * @param geometry         The geometry of the picker, which tells us whether the circle's center
+     *                         is moved up slightly to make room for the AM/PM circles and whether we
+     *                         have both an inner and an outer circle of numbers that may be selected.
      * @param disappearsOut    Whether the numbers' animation will have them disappearing out
      *                         or disappearing in.
      * @param selectionDegrees The initial degrees to be selected.
      * @param isInnerCircle    Whether the initial selection is in the inner or outer circle.
      *                         Will be ignored when hasInnerCircle is false.
      */
-    public void initialize(Context context, boolean is24HourMode, boolean hasInnerCircle,
+    public void initialize(PickerTheme theme, RadialGeometry geometry,
                            boolean disappearsOut, int selectionDegrees, boolean isInnerCircle) {
         if (mIsInitialized) {
             Log.e(TAG, "This RadialSelectorView may only be initialized once.");
             return;
         }
 
-        Resources res = context.getResources();
-
-        mSelectorColor = Utils.getPrimaryColor(context);
+        mSelectorColor = theme.primaryColor;
         mDotColor = Color.WHITE;
 
         mPaint.setAntiAlias(true);
 
-        // Calculate values for the circle radius size.
-        mIs24HourMode = is24HourMode;
-        if (is24HourMode) {
-            mCircleRadiusMultiplier = Float.parseFloat(
-                    res.getString(R.string.circle_radius_multiplier_24HourMode));
-        } else {
-            mCircleRadiusMultiplier = Float.parseFloat(
-                    res.getString(R.string.circle_radius_multiplier));
-            mAmPmCircleRadiusMultiplier =
-                    Float.parseFloat(res.getString(R.string.ampm_circle_radius_multiplier));
-        }
-
-        // Calculate values for the radius size(s) of the numbers circle(s).
-        mHasInnerCircle = hasInnerCircle;
-        if (hasInnerCircle) {
-            mInnerNumbersRadiusMultiplier =
-                    Float.parseFloat(res.getString(R.string.numbers_radius_multiplier_inner));
-            mOuterNumbersRadiusMultiplier =
-                    Float.parseFloat(res.getString(R.string.numbers_radius_multiplier_outer));
+        // The radius size(s) of the numbers circle(s).
+        mGeometry = geometry;
+        RadialGeometryProfile profile = geometry.profile;
+        mHasInnerCircle = profile.hasInnerCircle;
+        if (mHasInnerCircle) {
+            mInnerNumbersRadiusMultiplier = profile.innerNumbersRadiusMultiplier;
+            mOuterNumbersRadiusMultiplier = profile.numbersRadiusMultiplier;
         } else {
-            mNumbersRadiusMultiplier =
-                    Float.parseFloat(res.getString(R.string.numbers_radius_multiplier_normal));
+            mNumbersRadiusMultiplier = profile.numbersRadiusMultiplier;
         }
-        mSelectionRadiusMultiplier =
-                Float.parseFloat(res.getString(R.string.selection_radius_multiplier));
 
         // Calculate values for the transition mid-way states.
         mAnimationRadiusMultiplier = 1;
@@ -137,6 +114,14 @@ public class RadialSelectorView extends View {
         mIsInitialized = true;
     }
 
+    /**
+     * Called by the layout once the geometry has been updated for a new size.
+     */
+    public void onGeometryChanged() {
+        mDrawValuesReady = true;
+        invalidate();
+    }
+
     /**
      * Set the selection.
      *
@@ -177,18 +162,22 @@ public class RadialSelectorView extends View {
         if (!mDrawValuesReady) {
             return -1;
         }
+        int xCenter = mGeometry.xCenter;
+        int yCenter = mGeometry.yCenter;
+        int circleRadius = mGeometry.circleRadius;
+        int selectionRadius = mGeometry.selectionRadius;
 
         double hypotenuse = Math.sqrt(
-                (pointY - mYCenter) * (pointY - mYCenter) +
-                        (pointX - mXCenter) * (pointX - mXCenter));
+                (pointY - yCenter) * (pointY - yCenter) +
+                        (pointX - xCenter) * (pointX - xCenter));
         // Check if we're outside the range
         if (mHasInnerCircle) {
             if (forceLegal) {
                 // If we're told to force the coordinates to be legal, we'll set the isInnerCircle
                 // boolean based based off whichever number the coordinates are closer to.
-                int innerNumberRadius = (int) (mCircleRadius * mInnerNumbersRadiusMultiplier);
+                int innerNumberRadius = (int) (circleRadius * mInnerNumbersRadiusMultiplier);
                 int distanceToInnerNumber = (int) Math.abs(hypotenuse - innerNumberRadius);
-                int outerNumberRadius = (int) (mCircleRadius * mOuterNumbersRadiusMultiplier);
+                int outerNumberRadius = (int) (circleRadius * mOuterNumbersRadiusMultiplier);
                 int distanceToOuterNumber = (int) Math.abs(hypotenuse - outerNumberRadius);
 
                 isInnerCircle[0] = (distanceToInnerNumber <= distanceToOuterNumber);
@@ -197,10 +186,10 @@ public class RadialSelectorView extends View {
                 // two allotted equally), set the isInnerCircle boolean as the closer one.
                 // appropriately, but otherwise return -1.
                 int minAllowedHypotenuseForInnerNumber =
-                        (int) (mCircleRadius * mInnerNumbersRadiusMultiplier) - mSelectionRadius;
+                        (int) (circleRadius * mInnerNumbersRadiusMultiplier) - selectionRadius;
                 int maxAllowedHypotenuseForOuterNumber =
-                        (int) (mCircleRadius * mOuterNumbersRadiusMultiplier) + mSelectionRadius;
-                int halfwayHypotenusePoint = (int) (mCircleRadius *
+                        (int) (circleRadius * mOuterNumbersRadiusMultiplier) + selectionRadius;
+                int halfwayHypotenusePoint = (int) (circleRadius *
                         ((mOuterNumbersRadiusMultiplier + mInnerNumbersRadiusMultiplier) / 2));
 
                 if (hypotenuse >= minAllowedHypotenuseForInnerNumber &&
@@ -221,7 +210,7 @@ public class RadialSelectorView extends View {
                 int distanceToNumber = (int) Math.abs(hypotenuse - mLineLength);
                 // The max allowed distance will be defined as the distance from the center of the
                 // number to the edge of the circle.
-                int maxAllowedDistance = (int) (mCircleRadius * (1 - mNumbersRadiusMultiplier));
+                int maxAllowedDistance = (int) (circleRadius * (1 - mNumbersRadiusMultiplier));
                 if (distanceToNumber > maxAllowedDistance) {
                     return -1;
                 }
@@ -229,13 +218,13 @@ public class RadialSelectorView extends View {
         }
 
 
-        float opposite = Math.abs(pointY - mYCenter);
+        float opposite = Math.abs(pointY - yCenter);
         double radians = Math.asin(opposite / hypotenuse);
         int degrees = (int) (radians * 180 / Math.PI);
 
         // Now we have to translate to the correct quadrant.
-        boolean rightSide = (pointX > mXCenter);
-        boolean topSide = (pointY < mYCenter);
+        boolean rightSide = (pointX > xCenter);
+        boolean topSide = (pointY < yCenter);
         if (rightSide && topSide) {
             degrees = 90 - degrees;
         } else if (rightSide && !topSide) {
@@ -251,46 +240,31 @@ public class RadialSelectorView extends View {
     @Override
     public void onDraw(Canvas canvas) {
         int viewWidth = getWidth();
-        if (viewWidth == 0 || !mIsInitialized) {
+        if (viewWidth == 0 || !mIsInitialized || !mDrawValuesReady) {
             return;
         }
-
-        if (!mDrawValuesReady) {
-            mXCenter = getWidth() / 2;
-            mYCenter = getHeight() / 2;
-            mCircleRadius = (int) (Math.min(mXCenter, mYCenter) * mCircleRadiusMultiplier);
-
-            if (!mIs24HourMode) {
-                // We'll need to draw the AM/PM circles, so the main circle will need to have
-                // a slightly higher center. To keep the entire view centered vertically, we'll
-                // have to push it up by half the radius of the AM/PM circles.
-                int amPmCircleRadius = (int) (mCircleRadius * mAmPmCircleRadiusMultiplier);
-                mYCenter -= amPmCircleRadius / 2;
-            }
-
-            mSelectionRadius = (int) (mCircleRadius * mSelectionRadiusMultiplier);
-
-            mDrawValuesReady = true;
-        }
+        int xCenter = mGeometry.xCenter;
+        int yCenter = mGeometry.yCenter;
+        int selectionRadius = mGeometry.selectionRadius;
 
         // Calculate the current radius at which to place the selection circle.
-        mLineLength = (int) (mCircleRadius * mNumbersRadiusMultiplier * mAnimationRadiusMultiplier);
-        int pointX = mXCenter + (int) (mLineLength * Math.sin(mSelectionRadians));
-        int pointY = mYCenter - (int) (mLineLength * Math.cos(mSelectionRadians));
+        mLineLength = (int) (mGeometry.circleRadius * mNumbersRadiusMultiplier * mAnimationRadiusMultiplier);
+        int pointX = xCenter + (int) (mLineLength * Math.sin(mSelectionRadians));
+        int pointY = yCenter - (int) (mLineLength * Math.cos(mSelectionRadians));
 
         // Draw the selection circle.
         mPaint.setColor(mSelectorColor);
-        canvas.drawCircle(pointX, pointY, mSelectionRadius, mPaint);
+        canvas.drawCircle(pointX, pointY, selectionRadius, mPaint);
 
         // Draw the line from the center of the circle.
         mPaint.setStrokeWidth(3);
-        canvas.drawLine(mXCenter, mYCenter, pointX, pointY, mPaint);
+        canvas.drawLine(xCenter, yCenter, pointX, pointY, mPaint);
         mPaint.setStrokeWidth(1);
 
         if (mSelectionDegrees % 30 != 0) {
             // We're not on a direct tick (or we've been told to draw the dot anyway).
             mPaint.setColor(mDotColor);
-            canvas.drawCircle(pointX, pointY, (mSelectionRadius / 7), mPaint);
+            canvas.drawCircle(pointX, pointY, (selectionRadius / 7), mPaint);
         }
     }
 
@@ -16,7 +16,6 @@ package com.sleepbot.datetimepicker.time;
  */
 
 import android.content.Context;
-import android.content.res.Resources;
 import android.graphics.Canvas;
 import android.graphics.Color;
 import android.graphics.Paint;
@@ -27,7 +26,7 @@ import android.graphics.Paint.Align;
 import android.util.Log;
 import android.view.View;
 
-import com.fourmob.datetimepicker.R;
+import com.fourmob.datetimepicker.PickerTheme;
 import com.nineoldandroids.animation.Keyframe;
 import com.nineoldandroids.animation.ObjectAnimator;
 import com.nineoldandroids.animation.PropertyValuesHolder;
@@ -35,7 +34,11 @@ import com.nineoldandroids.animation.ValueAnimator;
 
 /**
  * A view to show a series of numbers in a circular pattern.
+ *
+ * @deprecated No longer used by {@link RadialPickerLayout}, which draws the dial with
+ * {@link RadialDialView}. Kept for apps which use it directly.
  */
+@Deprecated
 public class RadialTextsView extends View {
     private final static String TAG = "RadialTextsView";
 
@@ -52,21 +55,10 @@ public class RadialTextsView extends View {
     private Typeface mTypefaceRegular;
     private String[] mTexts;
     private String[] mInnerTexts;
-    private boolean mIs24HourMode;
     private boolean mHasInnerCircle;
-    private float mCircleRadiusMultiplier;
-    private float mAmPmCircleRadiusMultiplier;
-    private float mNumbersRadiusMultiplier;
-    private float mInnerNumbersRadiusMultiplier;
-    private float mTextSizeMultiplier;
-    private float mInnerTextSizeMultiplier;
-
-    private int mXCenter;
-    private int mYCenter;
-    private float mCircleRadius;
+    private RadialGeometry mGeometry;
+
     private boolean mTextGridValuesDirty;
-    private float mTextSize;
-    private float mInnerTextSize;
     private float[] mTextGridHeights;
     private float[] mTextGridWidths;
     private float[] mInnerTextGridHeights;
@@ -79,10 +71,8 @@ public class RadialTextsView extends View {
     ObjectAnimator mReappearAnimator;
     private InvalidateUpdateListener mInvalidateUpdateListener;
 
-    private float mSelectionRadiusMultiplier;
     private int mSelectionHourDegrees;
     private boolean mSelectionInnerCircle;
-    private float mSelectionRadius;
     private Path mSelectorPath;
 
     public RadialTextsView(Context context) {
@@ -90,8 +80,8 @@ public class RadialTextsView extends View {
         mIsInitialized = false;
     }
 
-    public void initialize(Resources res, String[] texts, String[] innerTexts,
-                           boolean is24HourMode, boolean disappearsOut,
+    public void initialize(PickerTheme theme, RadialGeometry geometry, String[] texts, String[] innerTexts,
+                           boolean disappearsOut,
                            int selectionHourDegrees, boolean selectionInnerCircle) {
         if (mIsInitialized) {
             Log.e(TAG, "This RadialTextsView may only be initialized once.");
@@ -99,56 +89,27 @@ public class RadialTextsView extends View {
         }
 
         // Set up the paint.
-        mNumbersTextColor = res.getColor(R.color.numbers_text_color);
-        String typefaceFamily = res.getString(R.string.radial_numbers_typeface);
-        mTypefaceLight = Typeface.create(typefaceFamily, Typeface.NORMAL);
-        String typefaceFamilyRegular = res.getString(R.string.sans_serif);
-        mTypefaceRegular = Typeface.create(typefaceFamilyRegular, Typeface.NORMAL);
+        mNumbersTextColor = theme.numbersTextColor;
+        mTypefaceLight = theme.radialNumbersTypeface;
+        mTypefaceRegular = theme.sansSerifTypeface;
         mPaint.setAntiAlias(true);
         mPaint.setTextAlign(Align.CENTER);
 
         mTexts = texts;
         mInnerTexts = innerTexts;
-        mIs24HourMode = is24HourMode;
         mHasInnerCircle = (innerTexts != null);
-
-        mSelectionRadiusMultiplier = Float.parseFloat(res.getString(R.string.selection_radius_multiplier));
+        mGeometry = geometry;
 
         mSelectionHourDegrees = selectionHourDegrees;
         mSelectionInnerCircle = selectionInnerCircle;
         mSelectorPath = new Path();
 
-        // Calculate the radius for the main circle.
-        if (is24HourMode) {
-            mCircleRadiusMultiplier = Float.parseFloat(
-                    res.getString(R.string.circle_radius_multiplier_24HourMode));
-        } else {
-            mCircleRadiusMultiplier = Float.parseFloat(
-                    res.getString(R.string.circle_radius_multiplier));
-            mAmPmCircleRadiusMultiplier =
-                    Float.parseFloat(res.getString(R.string.ampm_circle_radius_multiplier));
-        }
-
-        // Initialize the widths and heights of the grid, and calculate the values for the numbers.
+        // Initialize the widths and heights of the grid.
         mTextGridHeights = new float[7];
         mTextGridWidths = new float[7];
         if (mHasInnerCircle) {
-            mNumbersRadiusMultiplier = Float.parseFloat(
-                    res.getString(R.string.numbers_radius_multiplier_outer));
-            mTextSizeMultiplier = Float.parseFloat(
-                    res.getString(R.string.text_size_multiplier_outer));
-            mInnerNumbersRadiusMultiplier = Float.parseFloat(
-                    res.getString(R.string.numbers_radius_multiplier_inner));
-            mInnerTextSizeMultiplier = Float.parseFloat(
-                    res.getString(R.string.text_size_multiplier_inner));
-
             mInnerTextGridHeights = new float[7];
             mInnerTextGridWidths = new float[7];
-        } else {
-            mNumbersRadiusMultiplier = Float.parseFloat(
-                    res.getString(R.string.numbers_radius_multiplier_normal));
-            mTextSizeMultiplier = Float.parseFloat(
-                    res.getString(R.string.text_size_multiplier_normal));
         }
 
         mAnimationRadiusMultiplier = 1;
@@ -160,6 +121,19 @@ public class RadialTextsView extends View {
         mIsInitialized = true;
     }
 
+    /**
+     * Called by the layout once the geometry has been updated for a new size.
+     */
+    public void onGeometryChanged() {
+        if (!mDrawValuesReady) {
+            // Because the text positions will be static, pre-render the animations.
+            renderAnimations();
+            mDrawValuesReady = true;
+        }
+        mTextGridValuesDirty = true;
+        invalidate();
+    }
+
     /**
      * Allows for smoother animation.
      */
@@ -179,65 +153,41 @@ public class RadialTextsView extends View {
     @Override
     public void onDraw(Canvas canvas) {
         int viewWidth = getWidth();
-        if (viewWidth == 0 || !mIsInitialized) {
+        if (viewWidth == 0 || !mIsInitialized || !mDrawValuesReady) {
             return;
         }
-
-        if (!mDrawValuesReady) {
-            mXCenter = getWidth() / 2;
-            mYCenter = getHeight() / 2;
-            mCircleRadius = Math.min(mXCenter, mYCenter) * mCircleRadiusMultiplier;
-            if (!mIs24HourMode) {
-                // We'll need to draw the AM/PM circles, so the main circle will need to have
-                // a slightly higher center. To keep the entire view centered vertically, we'll
-                // have to push it up by half the radius of the AM/PM circles.
-                float amPmCircleRadius = mCircleRadius * mAmPmCircleRadiusMultiplier;
-                mYCenter -= amPmCircleRadius / 2;
-            }
-
-            mTextSize = mCircleRadius * mTextSizeMultiplier;
-            if (mHasInnerCircle) {
-                mInnerTextSize = mCircleRadius * mInnerTextSizeMultiplier;
-            }
-
-            // Because the text positions will be static, pre-render the animations.
-            renderAnimations();
-
-            mTextGridValuesDirty = true;
-            mDrawValuesReady = true;
-        }
+        RadialGeometry geometry = mGeometry;
+        RadialGeometryProfile profile = geometry.profile;
 
         // Calculate the text positions, but only if they've changed since the last onDraw.
-        float numbersRadius = mCircleRadius * mNumbersRadiusMultiplier * mAnimationRadiusMultiplier;
+        float numbersRadius =
+                geometry.circleRadius * profile.numbersRadiusMultiplier * mAnimationRadiusMultiplier;
         if (mTextGridValuesDirty) {
             // Calculate the positions for the 12 numbers in the main circle.
-            calculateGridSizes(numbersRadius, mXCenter, mYCenter,
-                    mTextSize, mTextGridHeights, mTextGridWidths);
+            calculateGridSizes(numbersRadius, geometry.xCenter, geometry.yCenter,
+                    geometry.textSize, mTextGridHeights, mTextGridWidths);
             if (mHasInnerCircle) {
                 // If we have an inner circle, calculate those positions too.
-                float innerNumbersRadius =
-                        mCircleRadius * mInnerNumbersRadiusMultiplier * mAnimationRadiusMultiplier;
-                calculateGridSizes(innerNumbersRadius, mXCenter, mYCenter,
-                        mInnerTextSize, mInnerTextGridHeights, mInnerTextGridWidths);
+                float innerNumbersRadius = geometry.circleRadius *
+                        profile.innerNumbersRadiusMultiplier * mAnimationRadiusMultiplier;
+                calculateGridSizes(innerNumbersRadius, geometry.xCenter, geometry.yCenter,
+                        geometry.innerTextSize, mInnerTextGridHeights, mInnerTextGridWidths);
             }
 
-            // The radius of the selector from the radial selector.
-            mSelectionRadius = (int) (mCircleRadius * mSelectionRadiusMultiplier);
-
             mTextGridValuesDirty = false;
         }
 
         // Create a mask for the radial selector.
         mSelectorPath.reset();
         double selectionRadians = mSelectionHourDegrees * Math.PI / 180;
-        float selectorX = mXCenter + (int) (numbersRadius * Math.sin(selectionRadians));
-        float selectorY = mYCenter - (int) (numbersRadius * Math.cos(selectionRadians));
-        mSelectorPath.addCircle(selectorX, selectorY, mSelectionRadius, Path.Direction.CW);
+        float selectorX = geometry.xCenter + (int) (numbersRadius * Math.sin(selectionRadians));
+        float selectorY = geometry.yCenter - (int) (numbersRadius * Math.cos(selectionRadians));
+        mSelectorPath.addCircle(selectorX, selectorY, geometry.selectionRadius, Path.Direction.CW);
 
         // Draw the texts in the pre-calculated positions.
-        drawTexts(canvas, mTextSize, mTypefaceLight, mTexts, mTextGridWidths, mTextGridHeights, !mSelectionInnerCircle);
+        drawTexts(canvas, geometry.textSize, mTypefaceLight, mTexts, mTextGridWidths, mTextGridHeights, !mSelectionInnerCircle);
         if (mHasInnerCircle) {
-            drawTexts(canvas, mInnerTextSize, mTypefaceRegular, mInnerTexts,
+            drawTexts(canvas, geometry.innerTextSize, mTypefaceRegular, mInnerTexts,
                     mInnerTextGridWidths, mInnerTextGridHeights, mSelectionInnerCircle);
         }
     }
@@ -16,12 +16,15 @@ package com.sleepbot.datetimepicker.time;
  */
 
 import android.app.ActionBar.LayoutParams;
+import android.content.Context;
 import android.content.res.ColorStateList;
 import android.graphics.Rect;
+import android.graphics.Typeface;
 import android.os.Build;
 import android.support.v4.app.DialogFragment;
 import android.content.res.Resources;
 import android.os.Bundle;
+import android.text.format.DateUtils;
 import android.text.method.TransformationMethod;
 import android.util.Log;
 import android.view.KeyCharacterMap;
@@ -35,10 +38,11 @@ import android.view.Window;
 import android.widget.RelativeLayout;
 import android.widget.TextView;
 
+import com.fourmob.datetimepicker.PickerExecutor;
+import com.fourmob.datetimepicker.PickerTheme;
 import com.fourmob.datetimepicker.R;
 import com.fourmob.datetimepicker.Utils;
 
-import java.text.DateFormatSymbols;
 import java.util.ArrayList;
 import java.util.Locale;
 
@@ -143,6 +147,45 @@ public class TimePickerDialog extends DialogFragment implements RadialPickerLayo
         return ret;
     }
 
+    /**
+     * Warms the caches the dialog uses when it's first shown, on a background thread: the theme
+     * colors, typefaces and dimensions, the labels of the dial and the AM/PM toggle, and the size
+     * multipliers of the dial. Call it ahead of time, for example from the onCreate of an Activity
+     * which is likely to show the dialog.
+     *
+     * @param context The themed context the dialog draws with. The dialog's views are inflated
+     *                in the dialog's own context, so the resolved colors are only reused when that
+     *                context, or another one with the same theme, is passed here; with any other
+     *                context they are resolved again when the dialog is shown. The context is only
+     *                held until the background work has run.
+     */
+    public static void prewarm(final Context context) {
+        final Context appContext = context.getApplicationContext();
+        PickerExecutor.getInstance().execute(new Runnable() {
+            @Override
+            public void run() {
+                PickerTheme.get(context);
+
+                Resources res = appContext.getResources();
+                Utils.getTypeface(res.getString(R.string.sans_serif), Typeface.NORMAL);
+                Utils.getTypeface(res.getString(R.string.radial_numbers_typeface), Typeface.NORMAL);
+
+                TimeTextCache textCache = TimeTextCache.getInstance();
+                textCache.getHourLabels(false);
+                textCache.getHourLabels(true);
+                textCache.getMinuteLabels();
+                textCache.getAmPmStrings();
+
+                RadialGeometryProfile.get(res, false, false);
+                RadialGeometryProfile.get(res, true, false);
+                RadialGeometryProfile.get(res, true, true);
+
+                // DateUtils loads its locale data on first use, the dial announces times with it.
+                DateUtils.formatDateTime(appContext, System.currentTimeMillis(), DateUtils.FORMAT_SHOW_TIME);
+            }
+        });
+    }
+
     public void initialize(OnTimeSetListener callback,
                            int hourOfDay, int minute, boolean is24HourMode, boolean vibrate) {
         mCallback = callback;
@@ -230,7 +273,7 @@ public class TimePickerDialog extends DialogFragment implements RadialPickerLayo
                 }
             });
         }
-        String[] amPmTexts = new DateFormatSymbols().getAmPmStrings();
+        String[] amPmTexts = TimeTextCache.getInstance().getAmPmStrings();
         mAmText = amPmTexts[0];
         mPmText = amPmTexts[1];
 
@@ -279,7 +322,7 @@ public class TimePickerDialog extends DialogFragment implements RadialPickerLayo
         });
 
         // Assign the programmatic state list drawable to allow attributes.
-        ColorStateList selector = Utils.createThemedTextColorStateList(view.getContext());
+        ColorStateList selector = PickerTheme.get(view.getContext()).buttonTextColors;
         mDoneButton.setTextColor(selector);
         cancelButton.setTextColor(selector);
 
@@ -0,0 +1,101 @@
+package com.sleepbot.datetimepicker.time;
+
+import java.text.DateFormatSymbols;
+import java.util.Locale;
+
+/**
+ * Process wide cache of the strings drawn by the time picker: the numbers around the dial and
+ * the AM and PM labels. Everything is built lazily for the current default locale and thrown
+ * away when the locale changes.
+ *
+ * The returned arrays are shared and must not be modified.
+ */
+public final class TimeTextCache {
+    private static final int NUMBERS_ON_DIAL = 12;
+    private static final int MINUTES_STEP = 5;
+
+    private static final TimeTextCache sInstance = new TimeTextCache();
+
+    private Locale mLocale;
+    private String[] mHourLabels;
+    private String[] mHourLabels24;
+    private String[] mMinuteLabels;
+    private String[] mAmPmStrings;
+
+    private TimeTextCache() {
+    }
+
+    public static TimeTextCache getInstance() {
+        return sInstance;
+    }
+
+    /**
+     * @return the hours of the outer circle, starting from the top: 12, 1 to 11 or 00, 13 to 23.
+     */
+    public synchronized String[] getHourLabels(boolean is24HourMode) {
+        ensureLocale();
+        if (is24HourMode) {
+            if (mHourLabels24 == null) {
+                mHourLabels24 = new String[NUMBERS_ON_DIAL];
+                mHourLabels24[0] = String.format(mLocale, "%02d", 0);
+                for (int i = 1; i < NUMBERS_ON_DIAL; i++) {
+                    mHourLabels24[i] = String.format(mLocale, "%02d", i + NUMBERS_ON_DIAL);
+                }
+            }
+            return mHourLabels24;
+        }
+        return getInnerHourLabels();
+    }
+
+    /**
+     * @return the hours 12, 1 to 11, starting from the top. These are on the inner circle in 24
+     * hour mode.
+     */
+    public synchronized String[] getInnerHourLabels() {
+        ensureLocale();
+        if (mHourLabels == null) {
+            mHourLabels = new String[NUMBERS_ON_DIAL];
+            mHourLabels[0] = String.format(mLocale, "%d", NUMBERS_ON_DIAL);
+            for (int i = 1; i < NUMBERS_ON_DIAL; i++) {
+                mHourLabels[i] = String.format(mLocale, "%d", i);
+            }
+        }
+        return mHourLabels;
+    }
+
+    /**
+     * @return the minutes around the dial, starting from the top: 00 to 55 in steps of five.
+     */
+    public synchronized String[] getMinuteLabels() {
+        ensureLocale();
+        if (mMinuteLabels == null) {
+            mMinuteLabels = new String[NUMBERS_ON_DIAL];
+            for (int i = 0; i < NUMBERS_ON_DIAL; i++) {
+                mMinuteLabels[i] = String.format(mLocale, "%02d", i * MINUTES_STEP);
+            }
+        }
+        return mMinuteLabels;
+    }
+
+    /**
+     * @return the AM and PM labels, in that order.
+     */
+    public synchronized String[] getAmPmStrings() {
+        ensureLocale();
+        if (mAmPmStrings == null) {
+            mAmPmStrings = new DateFormatSymbols(mLocale).getAmPmStrings();
+        }
+        return mAmPmStrings;
+    }
+
+    private void ensureLocale() {
+        Locale locale = Locale.getDefault();
+        if (locale != mLocale && !locale.equals(mLocale)) {
+            mLocale = locale;
+            mHourLabels = null;
+            mHourLabels24 = null;
+            mMinuteLabels = null;
+            mAmPmStrings = null;
+        }
+    }
+}
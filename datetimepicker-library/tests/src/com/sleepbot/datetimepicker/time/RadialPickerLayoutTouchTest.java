@@ -0,0 +1,125 @@
+package com.sleepbot.datetimepicker.time;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.os.Debug;
+import android.os.SystemClock;
+import android.test.InstrumentationTestCase;
+import android.view.ContextThemeWrapper;
+import android.view.MotionEvent;
+import android.view.View;
+
+import com.fourmob.datetimepicker.R;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Drives {@link RadialPickerLayout} through a scripted set of gestures, on the dial and on the
+ * AM/PM circles, and checks that handling them doesn't allocate once the layout is warmed up.
+ */
+public class RadialPickerLayoutTouchTest extends InstrumentationTestCase {
+    private static final int SIZE = 600;
+
+    private RadialPickerLayout mLayout;
+    private RadialGeometry mGeometry;
+    private final List<MotionEvent> mEvents = new ArrayList<>();
+    private int mValuesSelected;
+
+    public void testGesturesDoNotAllocate() throws Throwable {
+        runTestOnUiThread(new Runnable() {
+            @Override
+            public void run() {
+                setUpLayout();
+                scriptGestures();
+
+                // The first run creates whatever is created lazily, such as pooled messages.
+                runGestures();
+                assertTrue("the gestures selected nothing", mValuesSelected > 0);
+
+                Debug.startAllocCounting();
+                Debug.resetThreadAllocCount();
+                runGestures();
+                int allocations = Debug.getThreadAllocCount();
+                Debug.stopAllocCounting();
+
+                assertEquals("objects allocated while handling the gestures", 0, allocations);
+            }
+        });
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        for (MotionEvent event : mEvents) {
+            event.recycle();
+        }
+        mEvents.clear();
+        super.tearDown();
+    }
+
+    private void setUpLayout() {
+        Context context = new ContextThemeWrapper(getInstrumentation().getTargetContext(), R.style.Theme_AppCompat_Light);
+        mLayout = new RadialPickerLayout(context, null);
+        mLayout.setOnValueSelectedListener(new RadialPickerLayout.OnValueSelectedListener() {
+            @Override
+            public void onValueSelected(int pickerIndex, int newValue, boolean autoAdvance, boolean isTouchReleased) {
+                mValuesSelected++;
+            }
+        });
+        // 12-hour mode with the vibrations off, so the AM/PM circles are shown.
+        mLayout.initialize(context, 10, 30, false, false);
+        mLayout.measure(View.MeasureSpec.makeMeasureSpec(SIZE, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(SIZE, View.MeasureSpec.EXACTLY));
+        mLayout.layout(0, 0, SIZE, SIZE);
+
+        // The same geometry the layout computes for the hours, to find the numbers and circles.
+        Resources res = context.getResources();
+        mGeometry = new RadialGeometry(RadialGeometryProfile.get(res, false, false));
+        mGeometry.update(SIZE, SIZE);
+    }
+
+    /**
+     * Obtains every event ahead of time, so only the layout can allocate while they're handled.
+     */
+    private void scriptGestures() {
+        long downTime = SystemClock.uptimeMillis();
+
+        // Drag along the dial from 3 to 6 o'clock and release.
+        addDialEvent(downTime, MotionEvent.ACTION_DOWN, 90);
+        addDialEvent(downTime, MotionEvent.ACTION_MOVE, 100);
+        addDialEvent(downTime, MotionEvent.ACTION_MOVE, 120);
+        addDialEvent(downTime, MotionEvent.ACTION_MOVE, 150);
+        addDialEvent(downTime, MotionEvent.ACTION_MOVE, 180);
+        addDialEvent(downTime, MotionEvent.ACTION_UP, 180);
+
+        // Drag from 6 to 8 o'clock, then have the gesture taken away.
+        addDialEvent(downTime, MotionEvent.ACTION_DOWN, 180);
+        addDialEvent(downTime, MotionEvent.ACTION_MOVE, 210);
+        addDialEvent(downTime, MotionEvent.ACTION_MOVE, 240);
+        addDialEvent(downTime, MotionEvent.ACTION_CANCEL, 240);
+
+        // Tap PM, then AM, so every run starts from the same state.
+        addEvent(downTime, MotionEvent.ACTION_DOWN, mGeometry.pmXCenter, mGeometry.amPmYCenter);
+        addEvent(downTime, MotionEvent.ACTION_UP, mGeometry.pmXCenter, mGeometry.amPmYCenter);
+        addEvent(downTime, MotionEvent.ACTION_DOWN, mGeometry.amXCenter, mGeometry.amPmYCenter);
+        addEvent(downTime, MotionEvent.ACTION_UP, mGeometry.amXCenter, mGeometry.amPmYCenter);
+    }
+
+    private void addDialEvent(long downTime, int action, int degrees) {
+        double radians = Math.toRadians(degrees);
+        float numbersRadius = mGeometry.circleRadius * mGeometry.profile.numbersRadiusMultiplier;
+        float x = mGeometry.xCenter + (float) (numbersRadius * Math.sin(radians));
+        float y = mGeometry.yCenter - (float) (numbersRadius * Math.cos(radians));
+        addEvent(downTime, action, x, y);
+    }
+
+    private void addEvent(long downTime, int action, float x, float y) {
+        mEvents.add(MotionEvent.obtain(downTime, downTime + mEvents.size(), action, x, y, 0));
+    }
+
+    private void runGestures() {
+        for (int i = 0; i < mEvents.size(); i++) {
+            mLayout.onTouch(mLayout, mEvents.get(i));
+        }
+    }
+}
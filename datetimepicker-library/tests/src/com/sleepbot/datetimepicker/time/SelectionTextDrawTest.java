@@ -0,0 +1,156 @@
+package com.sleepbot.datetimepicker.time;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Matrix;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.RadialGradient;
+import android.graphics.Region;
+import android.graphics.Shader;
+import android.os.SystemClock;
+import android.test.AndroidTestCase;
+import android.util.Log;
+
+/**
+ * Compares the two ways of drawing a number half covered by the selection circle of the time
+ * picker dial: in white within the circle with a radial gradient shader, as {@link RadialDialView}
+ * does, and by drawing it twice clipped inside and outside of the circle, as the dial used to.
+ *
+ * Both are drawn on a software canvas, so the timings compare the work of each approach but not
+ * the cost of clipPath on hardware accelerated windows, where it isn't supported before API 18
+ * and forces a software layer. The timings are logged, only the pictures are asserted.
+ */
+public class SelectionTextDrawTest extends AndroidTestCase {
+    private static final String TAG = "SelectionTextDrawTest";
+
+    private static final int SIZE = 200;
+    private static final int WARMUP_DRAWS = 200;
+    private static final int DRAWS = 2000;
+
+    private static final String TEXT = "12";
+    private static final float TEXT_X = SIZE / 2;
+    private static final float TEXT_Y = SIZE / 2 + 20;
+    private static final int SELECTION_X = SIZE / 2 + 20;
+    private static final int SELECTION_Y = SIZE / 2;
+    private static final int SELECTION_RADIUS = 40;
+    private static final int NUMBERS_TEXT_COLOR = Color.BLACK;
+
+    private final Paint mPaint = new Paint();
+    private final Matrix mShaderMatrix = new Matrix();
+    private final Path mSelectorPath = new Path();
+    private Shader mShader;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        mPaint.setAntiAlias(true);
+        mPaint.setTextAlign(Paint.Align.CENTER);
+        mPaint.setTextSize(60);
+
+        // The same gradient as RadialDialView.Dial, white up to the last pixel of the selection.
+        float edge = 1f - 1f / SELECTION_RADIUS;
+        mShader = new RadialGradient(0, 0, SELECTION_RADIUS,
+                new int[]{Color.WHITE, Color.WHITE, NUMBERS_TEXT_COLOR},
+                new float[]{0f, edge, 1f}, Shader.TileMode.CLAMP);
+    }
+
+    public void testShaderDrawsTheSameAsClipping() {
+        Bitmap shaderBitmap = Bitmap.createBitmap(SIZE, SIZE, Bitmap.Config.ARGB_8888);
+        Bitmap clipBitmap = Bitmap.createBitmap(SIZE, SIZE, Bitmap.Config.ARGB_8888);
+        drawWithShader(newSelectionCanvas(shaderBitmap));
+        drawWithClip(newSelectionCanvas(clipBitmap));
+
+        // Only the anti-aliased edge of the circle may differ, by no more than a pixel's width.
+        int textPixels = 0;
+        int differentPixels = 0;
+        for (int y = 0; y < SIZE; y++) {
+            for (int x = 0; x < SIZE; x++) {
+                int shaderPixel = shaderBitmap.getPixel(x, y);
+                int clipPixel = clipBitmap.getPixel(x, y);
+                if (shaderPixel != Color.TRANSPARENT || clipPixel != Color.TRANSPARENT) {
+                    textPixels++;
+                }
+                if (colorDistance(shaderPixel, clipPixel) > 64) {
+                    assertTrue("pixel " + x + "," + y + " differs away from the selection edge",
+                            Math.abs(distanceToSelection(x, y) - SELECTION_RADIUS) <= 2);
+                    differentPixels++;
+                }
+            }
+        }
+        assertTrue("nothing was drawn", textPixels > 0);
+        Log.i(TAG, differentPixels + " of " + textPixels + " pixels differ on the selection edge");
+    }
+
+    public void testCompareDrawCost() {
+        Bitmap bitmap = Bitmap.createBitmap(SIZE, SIZE, Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(bitmap);
+
+        for (int i = 0; i < WARMUP_DRAWS; i++) {
+            drawWithShader(canvas);
+            drawWithClip(canvas);
+        }
+
+        long start = SystemClock.uptimeMillis();
+        for (int i = 0; i < DRAWS; i++) {
+            drawWithShader(canvas);
+        }
+        long shaderMillis = SystemClock.uptimeMillis() - start;
+
+        start = SystemClock.uptimeMillis();
+        for (int i = 0; i < DRAWS; i++) {
+            drawWithClip(canvas);
+        }
+        long clipMillis = SystemClock.uptimeMillis() - start;
+
+        Log.i(TAG, DRAWS + " draws: shader " + shaderMillis + "ms, clipPath " + clipMillis + "ms");
+    }
+
+    private Canvas newSelectionCanvas(Bitmap bitmap) {
+        Canvas canvas = new Canvas(bitmap);
+        bitmap.eraseColor(Color.TRANSPARENT);
+        return canvas;
+    }
+
+    /**
+     * Draws the number the way {@link RadialDialView} does.
+     */
+    private void drawWithShader(Canvas canvas) {
+        mShaderMatrix.setTranslate(SELECTION_X, SELECTION_Y);
+        mShader.setLocalMatrix(mShaderMatrix);
+        mPaint.setColor(Color.WHITE);
+        mPaint.setShader(mShader);
+        canvas.drawText(TEXT, TEXT_X, TEXT_Y, mPaint);
+        mPaint.setShader(null);
+    }
+
+    /**
+     * Draws the number the way the dial did before, with the path rebuilt for every draw.
+     */
+    private void drawWithClip(Canvas canvas) {
+        mSelectorPath.reset();
+        mSelectorPath.addCircle(SELECTION_X, SELECTION_Y, SELECTION_RADIUS, Path.Direction.CW);
+
+        canvas.save(Canvas.CLIP_SAVE_FLAG);
+        canvas.clipPath(mSelectorPath, Region.Op.DIFFERENCE);
+        mPaint.setColor(NUMBERS_TEXT_COLOR);
+        canvas.drawText(TEXT, TEXT_X, TEXT_Y, mPaint);
+        canvas.restore();
+
+        canvas.save(Canvas.CLIP_SAVE_FLAG);
+        canvas.clipPath(mSelectorPath);
+        mPaint.setColor(Color.WHITE);
+        canvas.drawText(TEXT, TEXT_X, TEXT_Y, mPaint);
+        canvas.restore();
+    }
+
+    private static double distanceToSelection(int x, int y) {
+        return Math.sqrt((x - SELECTION_X) * (x - SELECTION_X) + (y - SELECTION_Y) * (y - SELECTION_Y));
+    }
+
+    private static int colorDistance(int a, int b) {
+        return Math.max(Math.max(Math.abs(Color.alpha(a) - Color.alpha(b)), Math.abs(Color.red(a) - Color.red(b))),
+                Math.max(Math.abs(Color.green(a) - Color.green(b)), Math.abs(Color.blue(a) - Color.blue(b))));
+    }
+}
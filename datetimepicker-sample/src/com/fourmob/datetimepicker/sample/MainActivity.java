@@ -1,10 +1,14 @@
 package com.fourmob.datetimepicker.sample;
 
 import android.os.Bundle;
+import android.os.SystemClock;
 import android.support.annotation.IdRes;
+import android.support.v4.app.DialogFragment;
 import android.support.v7.app.AppCompatActivity;
+import android.util.Log;
 import android.view.View;
 import android.view.View.OnClickListener;
+import android.view.ViewTreeObserver;
 import android.widget.CheckBox;
 import android.widget.Toast;
 
@@ -22,19 +26,26 @@ public class MainActivity extends AppCompatActivity implements OnDateSetListener
     public static final String DATEPICKER_TAG = "datepicker";
     public static final String TIMEPICKER_TAG = "timepicker";
 
+    private static final String TAG = "DateTimePickerSample";
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_main);
 
+        DatePickerDialog.prewarm(this);
+        TimePickerDialog.prewarm(this);
+
         final Calendar calendar = Calendar.getInstance();
 
         findViewById(R.id.dateButton).setOnClickListener(new OnClickListener() {
 
             @Override
             public void onClick(View v) {
+                long startTime = SystemClock.uptimeMillis();
                 DatePickerDialog datePickerDialog = DatePickerDialog.newInstance(MainActivity.this, calendar.get(Calendar.YEAR), calendar.get(Calendar.MONTH), calendar.get(Calendar.DAY_OF_MONTH), isVibrate());
                 datePickerDialog.setVibrate(isVibrate());
+                datePickerDialog.setSharedMonthViewsEnabled(true);
 
                 if (getSetting(R.id.checkBoxUseConstraints)) {
                     Calendar minDate = Calendar.getInstance();
@@ -50,16 +61,19 @@ public class MainActivity extends AppCompatActivity implements OnDateSetListener
 
                 datePickerDialog.setCloseOnSingleTapDay(getSetting(R.id.checkBoxCloseOnSingleTapDay));
                 datePickerDialog.show(getSupportFragmentManager(), DATEPICKER_TAG);
+                logTimeToFirstFrame("DatePickerDialog", datePickerDialog, startTime);
             }
         });
 
         findViewById(R.id.timeButton).setOnClickListener(new OnClickListener() {
             @Override
             public void onClick(View v) {
+                long startTime = SystemClock.uptimeMillis();
                 TimePickerDialog timePickerDialog = TimePickerDialog.newInstance(MainActivity.this, calendar.get(Calendar.HOUR_OF_DAY) ,calendar.get(Calendar.MINUTE), getSetting(R.id.checkBoxIs24HourMode), false);
                 timePickerDialog.setVibrate(isVibrate());
                 timePickerDialog.setCloseOnSingleTapMinute(getSetting(R.id.checkBoxCloseOnSingleTapMinute));
                 timePickerDialog.show(getSupportFragmentManager(), TIMEPICKER_TAG);
+                logTimeToFirstFrame("TimePickerDialog", timePickerDialog, startTime);
             }
         });
 
@@ -76,6 +90,23 @@ public class MainActivity extends AppCompatActivity implements OnDateSetListener
         }
     }
 
+    /**
+     * Logs the time from the click to the first frame of the dialog, to compare dialog start up
+     * between changes.
+     */
+    private void logTimeToFirstFrame(final String name, DialogFragment dialogFragment, final long startTime) {
+        getSupportFragmentManager().executePendingTransactions();
+        final View decorView = dialogFragment.getDialog().getWindow().getDecorView();
+        decorView.getViewTreeObserver().addOnPreDrawListener(new ViewTreeObserver.OnPreDrawListener() {
+            @Override
+            public boolean onPreDraw() {
+                decorView.getViewTreeObserver().removeOnPreDrawListener(this);
+                Log.d(TAG, name + " time to first frame: " + (SystemClock.uptimeMillis() - startTime) + " ms");
+                return true;
+            }
+        });
+    }
+
     private boolean getSetting(@IdRes int checkboxRes) {
         return ((CheckBox) findViewById(checkboxRes)).isChecked();
     }